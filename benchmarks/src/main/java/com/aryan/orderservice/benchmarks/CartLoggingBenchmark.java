@@ -0,0 +1,91 @@
+package com.aryan.orderservice.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.aryan.orderservice.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost per getCartByUserId call: the former {@code log.info(order.toString())} against the
+ * parameterized debug statement that replaced it, through a synchronous appender and through the bounded
+ * async appender of logback-spring.xml. Events are formatted with Spring Boot's console pattern and written
+ * to a discarding stream, so the numbers exclude the terminal. Run with {@code -t 8} to add lock contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private LoggerContext context;
+
+    private Logger log;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.start();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+
+        Appender<ILoggingEvent> root = output;
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(2048);
+            async.setDiscardingThreshold(409);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        log = context.getLogger("com.aryan.orderservice.services.order.OrderServiceImpl");
+        order = OrderFixtures.order(42L, 3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void before_infoToString() {
+        log.info(order.toString());
+    }
+
+    @Benchmark
+    public void after_debugParameterized() {
+        log.debug("Pending order for user {}: {}", order.getUserId(), order);
+    }
+}
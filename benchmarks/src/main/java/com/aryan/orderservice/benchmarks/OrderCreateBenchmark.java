@@ -0,0 +1,89 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.OrderServiceApplication;
+import com.aryan.orderservice.dto.BulkOrderResult;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.services.order.BulkOrderService;
+import com.aryan.orderservice.services.order.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation throughput against the in-memory H2 database of the "loadtest" profile: one
+ * OrderService.createOrder call (one transaction, one insert) per order, as POST /api/microservice/orders does,
+ * against BulkOrderService with its chunked transactions and batched inserts. Each invocation creates
+ * {@value #ORDERS_PER_INVOCATION} orders, the score is in orders per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreateBenchmark {
+
+    private static final int ORDERS_PER_INVOCATION = 1_000;
+
+    private static final int USERS = 1_000;
+
+    @Param({"single", "bulk"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private BulkOrderService bulkOrderService;
+
+    private List<OrderRequest> requests;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("loadtest")
+                .properties(
+                        "order.loadtest.seed.orders=1000",
+                        "order.loadtest.seed.users=" + USERS,
+                        "order.analytics.reconcile-interval=PT24H",
+                        "logging.level.root=ERROR")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        bulkOrderService = context.getBean(BulkOrderService.class);
+        requests = new ArrayList<>(ORDERS_PER_INVOCATION);
+        for (int i = 0; i < ORDERS_PER_INVOCATION; i++) {
+            requests.add(OrderRequest.builder()
+                    .userId(1L + i % USERS)
+                    .amount(1_000L + i)
+                    .totalAmount(1_000L + i)
+                    .discount(0L)
+                    .orderStatus("Placed")
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public void createOrders(Blackhole blackhole) {
+        if (path.equals("single")) {
+            for (OrderRequest request : requests) {
+                blackhole.consume(orderService.createOrder(request));
+            }
+            return;
+        }
+        List<BulkOrderResult> results = bulkOrderService.createOrders(requests.iterator());
+        blackhole.consume(results);
+    }
+}
@@ -0,0 +1,70 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.dto.CouponDto;
+import com.aryan.orderservice.dto.UserDto;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.model.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/** Deterministic orders shaped like the ones served by the order endpoints ***/
+final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    static Order order(long id, int cartItems) {
+        Random random = new Random(id);
+        Order order = Order.builder()
+                .id(id)
+                .orderDescription("Order " + id)
+                .date(new Date(1_700_000_000_000L + id * 60_000))
+                .amount(10_000L + random.nextInt(90_000))
+                .address(id + " Main Street, Springfield")
+                .payment("CARD")
+                .totalAmount(12_000L)
+                .discount(2_000L)
+                .orderStatus(OrderStatus.Placed)
+                .userId(id % 1_000)
+                .user(UserDto.builder().id(id % 1_000).name("user-" + id % 1_000).build())
+                .couponId(7L)
+                .coupon(CouponDto.builder().id(7L).name("WELCOME").code("WELCOME10").build())
+                .trackingId(new UUID(id, id))
+                .build();
+        for (int i = 0; i < cartItems; i++) {
+            order.getItems().add(OrderItem.builder()
+                    .id(id * 100 + i)
+                    .order(order)
+                    .price(1_000L + random.nextInt(50_000))
+                    .quantity(1L + random.nextInt(3))
+                    .productId(10_000L + random.nextInt(5_000))
+                    .productName("Product " + i)
+                    .userId(id % 1_000)
+                    .build());
+        }
+        return order;
+    }
+
+    /** Adds {@code itemsPerOrder} cart items to each of the orders 1..orders seeded by LoadTestDataSeeder ***/
+    static void insertCartItems(JdbcTemplate jdbcTemplate, int orders, int users, int itemsPerOrder) {
+        List<Object[]> batch = new ArrayList<>();
+        long itemId = 1;
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            long userId = (orderId - 1) % users + 1;
+            for (int i = 0; i < itemsPerOrder; i++, itemId++) {
+                batch.add(new Object[]{itemId, orderId, 100L + i, "Product " + (100 + i), 1_000L * (i + 1), 1L + i, userId});
+            }
+            if (batch.size() >= 10_000 || orderId == orders) {
+                jdbcTemplate.batchUpdate("insert into order_items (id, order_id, product_id, product_name, price, quantity,"
+                        + " user_id) values (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
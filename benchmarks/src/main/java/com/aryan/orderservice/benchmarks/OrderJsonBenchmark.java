@@ -0,0 +1,50 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of order lists as returned by /api/admin/placedOrders and /api/microservice/myOrders,
+ * three cart items per order (image URLs only, the bytes are served by the product image endpoint).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int orders;
+
+    private ObjectMapper objectMapper;
+
+    private List<OrderDto> orderDtos;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        orderDtos = LongStream.rangeClosed(1, orders)
+                .mapToObj(id -> OrderFixtures.order(id, 3))
+                .map(Order::getOrderDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderDtos);
+    }
+}
@@ -0,0 +1,32 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Cost of Order.getOrderDto(), called once per order on every read path ***/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int cartItems;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = OrderFixtures.order(42L, cartItems);
+    }
+
+    @Benchmark
+    public OrderDto getOrderDto() {
+        return order.getOrderDto();
+    }
+}
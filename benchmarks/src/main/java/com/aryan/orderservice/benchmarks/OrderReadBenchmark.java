@@ -0,0 +1,99 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.OrderServiceApplication;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths against the in-memory H2 database of the "loadtest" profile (seeded by LoadTestDataSeeder, plus
+ * three cart items per order): loading Order entities in a read-write transaction and mapping them with
+ * getOrderDto(), as the services did before, against the OrderRow projections of OrderRepository. Run with
+ * {@code -prof gc} to compare the allocation rate per operation next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReadBenchmark {
+
+    private static final int ORDERS = 20_000;
+
+    private static final int USERS = 1_000;
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    private static final List<OrderStatus> PLACED_STATUSES = List.of(OrderStatus.Shipped, OrderStatus.Placed, OrderStatus.Delivered);
+
+    @Param({"entity", "projection"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderRepository orderRepository;
+
+    private TransactionTemplate readWrite;
+
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("loadtest")
+                .properties(
+                        "order.loadtest.seed.orders=" + ORDERS,
+                        "order.loadtest.seed.users=" + USERS,
+                        "order.analytics.reconcile-interval=PT24H",
+                        "logging.level.root=ERROR")
+                .run();
+        orderRepository = context.getBean(OrderRepository.class);
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManager = context.getBean(EntityManager.class);
+        OrderFixtures.insertCartItems(context.getBean(JdbcTemplate.class), ORDERS, USERS, ITEMS_PER_ORDER);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto orderById() {
+        long id = 1 + ThreadLocalRandom.current().nextLong(ORDERS);
+        if (path.equals("entity")) {
+            return readWrite.execute(status -> orderRepository.findById(id).map(Order::getOrderDto).orElse(null));
+        }
+        return orderRepository.findDtoById(id).orElse(null);
+    }
+
+    @Benchmark
+    public List<OrderDto> myPlacedOrders() {
+        long userId = 1 + ThreadLocalRandom.current().nextLong(USERS);
+        if (path.equals("entity")) {
+            // the entity query the services ran before the projections, items fetched in the same query
+            return readWrite.execute(status -> entityManager.createQuery(
+                            "select distinct o from Order o left join fetch o.items"
+                                    + " where o.userId = :userId and o.orderStatus in :statuses", Order.class)
+                    .setParameter("userId", userId)
+                    .setParameter("statuses", PLACED_STATUSES)
+                    .getResultStream().map(Order::getOrderDto).toList());
+        }
+        return orderRepository.findDtosByUserIdAndOrderStatusIn(userId, PLACED_STATUSES);
+    }
+}
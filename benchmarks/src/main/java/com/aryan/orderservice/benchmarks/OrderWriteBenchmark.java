@@ -0,0 +1,88 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.OrderServiceApplication;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderPatch;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.services.order.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changing the address of an order against the in-memory H2 database of the "loadtest" profile: the full-entity
+ * write of PUT /api/microservice/addorder/orders (the whole OrderDto with its three cart items, every column
+ * rewritten) against the OrderPatch of PATCH /api/microservice/orders/{id} (only the address is sent and set).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderWriteBenchmark {
+
+    private static final int ORDERS = 20_000;
+
+    private static final int USERS = 1_000;
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    /** Orders written to: their DTOs are read once, as the callers of the PUT endpoint hold them ***/
+    private static final int WRITTEN_ORDERS = 1_000;
+
+    @Param({"put", "patch"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private List<OrderDto> orders;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("loadtest")
+                .properties(
+                        "order.loadtest.seed.orders=" + ORDERS,
+                        "order.loadtest.seed.users=" + USERS,
+                        "order.analytics.reconcile-interval=PT24H",
+                        "logging.level.root=ERROR")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        OrderFixtures.insertCartItems(context.getBean(JdbcTemplate.class), ORDERS, USERS, ITEMS_PER_ORDER);
+        OrderRepository orderRepository = context.getBean(OrderRepository.class);
+        orders = new ArrayList<>(WRITTEN_ORDERS);
+        for (long id = 1; id <= WRITTEN_ORDERS; id++) {
+            OrderDto order = orderRepository.findDtoById(id).orElseThrow();
+            // unconditional writes: the benchmark measures the write path, not conflicts
+            order.setVersion(null);
+            orders.add(order);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto changeAddress() {
+        OrderDto order = orders.get(ThreadLocalRandom.current().nextInt(WRITTEN_ORDERS));
+        String address = ThreadLocalRandom.current().nextInt(10_000) + " Main Street, Springfield";
+        if (path.equals("put")) {
+            order.setAddress(address);
+            return orderService.updateOrder(order);
+        }
+        return orderService.patchOrder(order.getId(), OrderPatch.builder().address(address).build(), null);
+    }
+}
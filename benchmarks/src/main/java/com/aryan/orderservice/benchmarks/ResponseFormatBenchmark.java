@@ -0,0 +1,73 @@
+package com.aryan.orderservice.benchmarks;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU per response and bytes on the wire for an order list in each representation order-service can send:
+ * JSON, JSON gzipped as Tomcat does it (default deflate level), Smile and CBOR. The size of each body is
+ * printed once per trial, next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"100", "1000"})
+    private int orders;
+
+    @Param({"json", "json+gzip", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+
+    private boolean gzip;
+
+    private List<OrderDto> orderDtos;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same Jackson settings as the JSON converter and BinaryFormatsConfig
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper = switch (format) {
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> builder.build();
+        };
+        gzip = format.equals("json+gzip");
+        orderDtos = LongStream.rangeClosed(1, orders)
+                .mapToObj(id -> OrderFixtures.order(id, 3))
+                .map(Order::getOrderDto)
+                .toList();
+        System.out.printf("%nbytes on the wire: format=%s orders=%d bytes=%d%n", format, orders, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(orderDtos);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, orderDtos);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,39 @@
+package com.aryan.orderservice.services.admin.adminOrder;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Calendar-based month boundaries used by the analytics queries, next to the java.time equivalent.
+ * Lives in AdminOrderServiceImpl's package because startOfMonth is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StartOfMonthBenchmark {
+
+    /** 13 rolls over to January of the next year, as for "the month after December" ***/
+    @Param({"6", "13"})
+    private int month;
+
+    private final int year = 2025;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Benchmark
+    public Date calendarStartOfMonth() {
+        return AdminOrderServiceImpl.startOfMonth(month, year);
+    }
+
+    @Benchmark
+    public Date javaTimeStartOfMonth() {
+        return Date.from(YearMonth.of(year, 1).plusMonths(month - 1L).atDay(1).atStartOfDay(zone).toInstant());
+    }
+}
@@ -0,0 +1,229 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop HTTP load generator for order-service: {@code --concurrency} clients each send a request,
+ * wait for the answer and send the next one, for {@code --duration} after a {@code --warmup} period.
+ * Prints throughput and latency percentiles per endpoint and in total, so that runs can be compared
+ * (platform threads vs virtual threads, before/after a change, ...).
+ *
+ * <p>Requests come from a {@code --scenario} (see {@link #SCENARIOS}) or from {@code --paths}. Paths may use
+ * {@code {orderId}}, {@code {userId}} and {@code {trackingId}}, drawn at random among the ids produced by
+ * LoadTestDataSeeder ({@code --orders} and {@code --users} must match the seeded data).
+ *
+ * <pre>
+ * # Java 11+ runs a single source file directly, no build needed; load-test/run.sh starts everything
+ * java load-test/OrderLoadTest.java --label platform --scenario mixed --concurrency 1000 --duration 60s
+ * # restart the service with SPRING_THREADS_VIRTUAL_ENABLED=true (Java 21+), then
+ * java load-test/OrderLoadTest.java --label virtual --scenario mixed --concurrency 1000 --duration 60s
+ * </pre>
+ */
+public class OrderLoadTest {
+
+    /** Endpoint mixes; a path listed twice is requested twice as often ***/
+    static final Map<String, List<String>> SCENARIOS = Map.of(
+            "tracking", List.of(
+                    "/api/microservice/orders/{orderId}",
+                    "/api/microservice/getmyplacedorder/tracking/{trackingId}"),
+            "cart", List.of(
+                    "/api/microservice/getmyplacedorder/orders/{userId}"),
+            "my-orders", List.of(
+                    "/api/microservice/myOrders/{userId}"),
+            "admin", List.of(
+                    "/api/admin/placedOrders?afterId={orderId}&limit=100",
+                    "/api/admin/order/analytics"),
+            "mixed", List.of(
+                    "/api/microservice/orders/{orderId}",
+                    "/api/microservice/orders/{orderId}",
+                    "/api/microservice/getmyplacedorder/tracking/{trackingId}",
+                    "/api/microservice/getmyplacedorder/orders/{userId}",
+                    "/api/microservice/getmyplacedorder/orders/{userId}",
+                    "/api/microservice/getmyplacedorder/orders/{userId}",
+                    "/api/microservice/myOrders/{userId}",
+                    "/api/admin/placedOrders?afterId={orderId}&limit=100",
+                    "/api/admin/order/analytics"));
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8084");
+        List<String> templates = options.containsKey("paths")
+                ? Arrays.stream(options.get("paths").split(",")).map(String::trim).toList()
+                : SCENARIOS.get(options.getOrDefault("scenario", "mixed"));
+        if (templates == null) {
+            throw new IllegalArgumentException("Unknown scenario, expected one of " + SCENARIOS.keySet());
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+        Duration measured = duration(options.getOrDefault("duration", "60s"));
+        long orders = Long.parseLong(options.getOrDefault("orders", "1000000"));
+        long users = Long.parseLong(options.getOrDefault("users", "100000"));
+        String token = options.getOrDefault("token", System.getenv().getOrDefault("ECOM_TOKEN", "ecom-token"));
+        String label = options.getOrDefault("label", options.getOrDefault("scenario", "run"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<String> endpoints = templates.stream().distinct().toList();
+        RequestFactory requests = new RequestFactory(baseUrl, templates, endpoints, token, orders, users);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+        Counters counters = new Counters(endpoints.size());
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(new Worker(client, requests, endpoints.size(), measureFrom, measureUntil, counters));
+        }
+        CompletableFuture.allOf(workers.stream().map(Worker::start).toArray(CompletableFuture[]::new)).join();
+
+        double seconds = measured.toNanos() / 1e9;
+        for (int e = 0; e < endpoints.size(); e++) {
+            int endpoint = e;
+            report(label, endpoints.get(e), concurrency, seconds, counters, endpoint,
+                    workers.stream().flatMapToLong(worker -> worker.latencies.get(endpoint).stream().mapToLong(Long::longValue)).toArray());
+        }
+        report(label, "TOTAL", concurrency, seconds, counters, -1,
+                workers.stream().flatMapToLong(worker -> worker.latencies.stream()
+                        .flatMapToLong(latencies -> latencies.stream().mapToLong(Long::longValue))).toArray());
+    }
+
+    private static void report(String label, String endpoint, int concurrency, double seconds,
+                               Counters counters, int index, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("label=%s endpoint=%s concurrency=%d requests=%d 4xx=%d errors=%d throughput=%.1f req/s "
+                        + "p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                label, endpoint, concurrency, latencies.length, counters.clientErrors(index), counters.errors(index),
+                latencies.length / seconds, percentile(latencies, 50), percentile(latencies, 90),
+                percentile(latencies, 99), percentile(latencies, 100));
+    }
+
+    /** Picks an endpoint and fills in its ids ***/
+    private record RequestFactory(String baseUrl, List<String> templates, List<String> endpoints,
+                                  String token, long orders, long users) {
+
+        int pick() {
+            return endpoints.indexOf(templates.get(ThreadLocalRandom.current().nextInt(templates.size())));
+        }
+
+        HttpRequest build(int endpoint) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long orderId = 1 + random.nextLong(orders);
+            String path = endpoints.get(endpoint)
+                    .replace("{orderId}", Long.toString(orderId))
+                    .replace("{trackingId}", new UUID(0L, 1 + random.nextLong(orders)).toString())
+                    .replace("{userId}", Long.toString(1 + random.nextLong(users)));
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+    }
+
+    /** 4xx answers (e.g. a user without a cart) are expected, errors are 5xx answers, timeouts and I/O failures ***/
+    private record Counters(AtomicLongArray clientErrorsByEndpoint, AtomicLongArray errorsByEndpoint) {
+
+        Counters(int endpoints) {
+            this(new AtomicLongArray(endpoints), new AtomicLongArray(endpoints));
+        }
+
+        long clientErrors(int endpoint) {
+            return endpoint >= 0 ? clientErrorsByEndpoint.get(endpoint) : sum(clientErrorsByEndpoint);
+        }
+
+        long errors(int endpoint) {
+            return endpoint >= 0 ? errorsByEndpoint.get(endpoint) : sum(errorsByEndpoint);
+        }
+
+        private static long sum(AtomicLongArray values) {
+            long total = 0;
+            for (int i = 0; i < values.length(); i++) {
+                total += values.get(i);
+            }
+            return total;
+        }
+    }
+
+    /** One client: requests are chained, so at most one is in flight per worker ***/
+    private static final class Worker {
+        final HttpClient client;
+        final RequestFactory requests;
+        final long measureFrom;
+        final long measureUntil;
+        final Counters counters;
+        final List<List<Long>> latencies = new ArrayList<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Worker(HttpClient client, RequestFactory requests, int endpoints, long measureFrom, long measureUntil, Counters counters) {
+            this.client = client;
+            this.requests = requests;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.counters = counters;
+            for (int i = 0; i < endpoints; i++) {
+                latencies.add(new ArrayList<>());
+            }
+        }
+
+        CompletableFuture<Void> start() {
+            send();
+            return done;
+        }
+
+        private void send() {
+            long sentAt = System.nanoTime();
+            if (sentAt >= measureUntil) {
+                done.complete(null);
+                return;
+            }
+            int endpoint = requests.pick();
+            client.sendAsync(requests.build(endpoint), HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long receivedAt = System.nanoTime();
+                if (sentAt >= measureFrom && receivedAt < measureUntil) {
+                    if (failure != null || response.statusCode() >= 500) {
+                        counters.errorsByEndpoint().incrementAndGet(endpoint);
+                    } else {
+                        if (response.statusCode() >= 400) {
+                            counters.clientErrorsByEndpoint().incrementAndGet(endpoint);
+                        }
+                        latencies.get(endpoint).add(receivedAt - sentAt);
+                    }
+                }
+                send();
+            });
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,104 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-ins for the services order-service calls through Feign, with a fixed latency per call:
+ * user-service (GET /api/users/{id}, POST /api/users/batch), product-service (GET /product/{id}) and
+ * coupon-service (GET /api/admin/coupons/{id}). Every id exists, so answers are generated from the id.
+ *
+ * <pre>
+ * java load-test/StubServices.java --latency 20ms --user-port 18081 --product-port 18082 --coupon-port 18083
+ * </pre>
+ */
+public class StubServices {
+
+    private static final Pattern LAST_ID = Pattern.compile("/(\\d+)$");
+
+    private static final Pattern IDS = Pattern.compile("\\d+");
+
+    private static long latencyMs;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        latencyMs = Long.parseLong(options.getOrDefault("latency", "20ms").replace("ms", ""));
+
+        start("user-service", Integer.parseInt(options.getOrDefault("user-port", "18081")), "/api/users", exchange -> {
+            if ("POST".equals(exchange.getRequestMethod()) && exchange.getRequestURI().getPath().endsWith("/batch")) {
+                Matcher ids = IDS.matcher(body(exchange.getRequestBody()));
+                StringBuilder users = new StringBuilder();
+                while (ids.find()) {
+                    users.append(users.length() == 0 ? "" : ",").append(user(ids.group()));
+                }
+                return "[" + users + "]";
+            }
+            return user(lastId(exchange));
+        });
+        start("product-service", Integer.parseInt(options.getOrDefault("product-port", "18082")), "/product", exchange -> {
+            String id = lastId(exchange);
+            return "{\"id\":" + id + ",\"name\":\"Product " + id + "\",\"price\":" + (1000 + Long.parseLong(id) % 9000) + "}";
+        });
+        start("coupon-service", Integer.parseInt(options.getOrDefault("coupon-port", "18083")), "/api/admin/coupons", exchange -> {
+            String id = lastId(exchange);
+            return "{\"id\":" + id + ",\"name\":\"Coupon " + id + "\",\"code\":\"LOAD" + id + "\",\"discount\":10}";
+        });
+        System.out.printf("Stub services started with %d ms latency%n", latencyMs);
+    }
+
+    private interface Responder {
+        String respond(HttpExchange exchange) throws IOException;
+    }
+
+    private static void start(String name, int port, String context, Responder responder) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.createContext(context, exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+                byte[] body = responder.respond(exchange).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(503, -1);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(400, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.out.printf("%s stub listening on port %d%n", name, port);
+    }
+
+    private static String user(String id) {
+        return "{\"id\":" + id + ",\"name\":\"user-" + id + "\",\"email\":\"user-" + id + "@example.com\"}";
+    }
+
+    private static String lastId(HttpExchange exchange) {
+        Matcher matcher = LAST_ID.matcher(exchange.getRequestURI().getPath());
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("No id in " + exchange.getRequestURI());
+        }
+        return matcher.group(1);
+    }
+
+    private static String body(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Self-contained load test: starts the stub services, runs order-service with the "loadtest" profile
+# (in-memory H2 in MySQL mode, seeded with SEED_ORDERS orders) and plays each scenario against it.
+#
+#   load-test/run.sh                                  # all scenarios, platform threads
+#   VIRTUAL_THREADS=true load-test/run.sh mixed       # one scenario, virtual threads (Java 21+)
+#
+# Tunables (environment): SEED_ORDERS, SEED_USERS, CONCURRENCY, WARMUP, DURATION, STUB_LATENCY, VIRTUAL_THREADS
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+SEED_ORDERS=${SEED_ORDERS:-1000000}
+SEED_USERS=${SEED_USERS:-100000}
+CONCURRENCY=${CONCURRENCY:-1000}
+WARMUP=${WARMUP:-10s}
+DURATION=${DURATION:-60s}
+STUB_LATENCY=${STUB_LATENCY:-20ms}
+VIRTUAL_THREADS=${VIRTUAL_THREADS:-false}
+SCENARIOS=${*:-tracking cart my-orders admin mixed}
+LOG_DIR=target/load-test
+mkdir -p "$LOG_DIR"
+
+# Spring ignores spring.threads.virtual.enabled below Java 21: the run would be labelled virtual but measure platform threads
+if [[ "$VIRTUAL_THREADS" == true ]]; then
+    JAVA_VERSION=$(java -XshowSettings:properties -version 2>&1 | awk -F' = ' '/java.specification.version/ {print $2}')
+    if (( ${JAVA_VERSION%%.*} < 21 )); then
+        echo "VIRTUAL_THREADS=true needs Java 21+, found $JAVA_VERSION" >&2
+        exit 1
+    fi
+fi
+
+cleanup() {
+    [[ -n "${SERVICE_PID:-}" ]] && kill "$SERVICE_PID" 2>/dev/null || true
+    [[ -n "${STUBS_PID:-}" ]] && kill "$STUBS_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+java load-test/StubServices.java --latency "$STUB_LATENCY" > "$LOG_DIR/stubs.log" 2>&1 &
+STUBS_PID=$!
+
+./mvnw -q -Ploadtest package -DskipTests
+SEED_ORDERS=$SEED_ORDERS SEED_USERS=$SEED_USERS SPRING_THREADS_VIRTUAL_ENABLED=$VIRTUAL_THREADS \
+    java -Xmx4g -jar target/order-service-0.0.1-SNAPSHOT-exec.jar \
+    --spring.profiles.active=loadtest --spring.cloud.config.enabled=false > "$LOG_DIR/order-service.log" 2>&1 &
+SERVICE_PID=$!
+
+echo "Waiting for order-service (seeding $SEED_ORDERS orders)..."
+until curl -s -o /dev/null http://localhost:8084/api/microservice/orders/1; do
+    if ! kill -0 "$SERVICE_PID" 2>/dev/null; then
+        echo "order-service did not start, see $LOG_DIR/order-service.log" >&2
+        exit 1
+    fi
+    sleep 2
+done
+
+for scenario in $SCENARIOS; do
+    java load-test/OrderLoadTest.java --scenario "$scenario" --label "$scenario-virtual=$VIRTUAL_THREADS" \
+        --concurrency "$CONCURRENCY" --warmup "$WARMUP" --duration "$DURATION" \
+        --orders "$SEED_ORDERS" --users "$SEED_USERS" | tee -a "$LOG_DIR/results.txt"
+done
@@ -0,0 +1,84 @@
+package com.aryan.orderservice.cache;
+
+import com.aryan.orderservice.services.product.ProductImage;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Local Caffeine caches for order reads (bounded, TTL, stats exported as cache.* metrics by the actuator).
+ * The pending order cache has its own, shorter TTL because it also holds "no pending order" entries, which
+ * are the most common and which writes made through another instance cannot evict here. Product images
+ * (see ProductImageService) are bounded by their total size.
+ * Declaring a {@link CacheManager} bean named {@value #SECOND_LEVEL_CACHE_MANAGER} (Redis or any other
+ * shared store) puts it behind the local tier.
+ */
+@Configuration
+public class OrderCacheConfig {
+
+    public static final String ORDERS_BY_ID = "ordersById";
+    public static final String ORDERS_BY_TRACKING_ID = "ordersByTrackingId";
+    public static final String PENDING_ORDER_BY_USER_ID = "pendingOrderByUserId";
+    public static final String PRODUCT_IMAGES = "productImages";
+    public static final String SECOND_LEVEL_CACHE_MANAGER = "orderSecondLevelCacheManager";
+
+    @Value("${order.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${order.cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${order.cache.pending-ttl:PT1M}")
+    private Duration pendingTtl;
+
+    @Value("${order.product-image.cache-size:64MB}")
+    private DataSize productImageCacheSize;
+
+    @Value("${order.product-image.ttl:PT1H}")
+    private Duration productImageTtl;
+
+    @Bean
+    public CaffeineCacheManager orderCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ORDERS_BY_ID, ORDERS_BY_TRACKING_ID);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        // null values are the negative entries of the pending order cache
+        cacheManager.setAllowNullValues(true);
+        cacheManager.registerCustomCache(PENDING_ORDER_BY_USER_ID, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(pendingTtl)
+                .recordStats()
+                .build());
+        // weighed by image size; products without an image are cached as null and weigh one byte
+        cacheManager.registerCustomCache(PRODUCT_IMAGES, Caffeine.newBuilder()
+                .maximumWeight(productImageCacheSize.toBytes())
+                .weigher((Object key, Object value) -> value instanceof ProductImage image ? image.bytes().length : 1)
+                .expireAfterWrite(productImageTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    @Bean
+    public OrderDtoCache orderDtoCache(@Qualifier(SECOND_LEVEL_CACHE_MANAGER) ObjectProvider<CacheManager> secondLevel) {
+        CacheManager shared = secondLevel.getIfAvailable();
+        return new OrderDtoCache(cache(ORDERS_BY_ID, shared), cache(ORDERS_BY_TRACKING_ID, shared),
+                cache(PENDING_ORDER_BY_USER_ID, shared));
+    }
+
+    private Cache cache(String name, CacheManager shared) {
+        Cache local = orderCacheManager().getCache(name);
+        return shared != null ? new TieredCache(local, shared.getCache(name)) : local;
+    }
+}
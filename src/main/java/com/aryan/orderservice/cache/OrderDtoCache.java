@@ -0,0 +1,116 @@
+package com.aryan.orderservice.cache;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.utils.AfterCommit;
+import org.springframework.cache.Cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link OrderDto} by order id, by tracking id and of each user's pending (cart) order.
+ * Orders looked up by id or tracking id are only cached when found, while the pending order cache also remembers
+ * users without one. Writers evict the affected keys once their transaction has committed.
+ *
+ * <p>A reader that loaded a row before a writer committed must not put it back after the writer's evict. Each evict
+ * first bumps the invalidation stamp of the key's stripe; a reader takes the stamp before loading and, once it has
+ * put its value, evicts it again if the stamp has moved in the meantime.
+ */
+public class OrderDtoCache {
+
+    private final Cache byId;
+
+    private final Cache byTrackingId;
+
+    private final Cache pendingByUserId;
+
+    private static final int STRIPES = 1024;
+
+    /** Invalidation stamps, one per stripe of keys (shared by the three caches) ***/
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    public OrderDtoCache(Cache byId, Cache byTrackingId, Cache pendingByUserId) {
+        this.byId = byId;
+        this.byTrackingId = byTrackingId;
+        this.pendingByUserId = pendingByUserId;
+    }
+
+    public OrderDto getById(Long id, Function<Long, OrderDto> loader) {
+        return readThrough(byId, id, loader);
+    }
+
+    public OrderDto getByTrackingId(UUID trackingId, Function<UUID, OrderDto> loader) {
+        return readThrough(byTrackingId, trackingId, loader);
+    }
+
+    /** Returns the user's pending order, or null; a user without one is cached as such until the next write ***/
+    public OrderDto getPendingByUserId(Long userId, Function<Long, OrderDto> loader) {
+        if (userId == null) {
+            return loader.apply(null);
+        }
+        Cache.ValueWrapper cached = pendingByUserId.get(userId);
+        if (cached != null) {
+            return (OrderDto) cached.get();
+        }
+        long stamp = stamp(userId);
+        OrderDto loaded = loader.apply(userId);
+        put(pendingByUserId, userId, loaded, stamp);
+        return loaded;
+    }
+
+    /** Evicts the order and every tracking id it had before or after the write ***/
+    public void evict(Long id, UUID... trackingIds) {
+        AfterCommit.run(() -> {
+            if (id != null) {
+                invalidate(byId, id);
+            }
+            Arrays.stream(trackingIds).filter(Objects::nonNull).forEach(trackingId -> invalidate(byTrackingId, trackingId));
+        });
+    }
+
+    /** Evicts the pending order of every user whose cart may have been created, changed or checked out ***/
+    public void evictPendingByUserId(Long... userIds) {
+        AfterCommit.run(() -> Arrays.stream(userIds).filter(Objects::nonNull).forEach(userId -> invalidate(pendingByUserId, userId)));
+    }
+
+    private <K> OrderDto readThrough(Cache cache, K key, Function<K, OrderDto> loader) {
+        if (key == null) {
+            return loader.apply(null);
+        }
+        OrderDto cached = cache.get(key, OrderDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = stamp(key);
+        OrderDto loaded = loader.apply(key);
+        if (loaded != null) {
+            put(cache, key, loaded, stamp);
+        }
+        return loaded;
+    }
+
+    /** Puts a value loaded after {@code stamp} was taken, unless an evict of its key ran in between ***/
+    private void put(Cache cache, Object key, OrderDto loaded, long stamp) {
+        cache.put(key, loaded);
+        if (stamp(key) != stamp) {
+            cache.evict(key);
+        }
+    }
+
+    private void invalidate(Cache cache, Object key) {
+        invalidations.incrementAndGet(stripe(key));
+        cache.evict(key);
+    }
+
+    private long stamp(Object key) {
+        return invalidations.get(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
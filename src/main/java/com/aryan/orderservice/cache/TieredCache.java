@@ -0,0 +1,90 @@
+package com.aryan.orderservice.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A local cache in front of a shared one: reads try the local tier first and back-fill it from the shared tier,
+ * writes and evictions go to both.
+ */
+public class TieredCache implements Cache {
+
+    private final Cache local;
+
+    private final Cache shared;
+
+    public TieredCache(Cache local, Cache shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value == null) {
+            value = shared.get(key);
+            if (value != null) {
+                local.put(key, value.get());
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object stored = value != null ? value.get() : null;
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        try {
+            T loaded = valueLoader.call();
+            if (loaded != null) {
+                put(key, loaded);
+            }
+            return loaded;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        shared.put(key, value);
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(key);
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        local.clear();
+    }
+}
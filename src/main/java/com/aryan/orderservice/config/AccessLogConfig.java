@@ -0,0 +1,27 @@
+package com.aryan.orderservice.config;
+
+import com.aryan.orderservice.filter.AccessLogFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/** Access log, registered ahead of Spring Security so that rejected requests (401, 403) are logged too ***/
+@Configuration
+@ConditionalOnProperty(name = "order.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+            @Value("${order.access-log.sample-rate:0.1}") double sampleRate,
+            @Value("${order.access-log.slow-threshold:PT1S}") Duration slowThreshold) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(sampleRate, slowThreshold));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,72 @@
+package com.aryan.orderservice.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+/**
+ * Times every Feign call as {@value #METRIC}, tagged with the client (user-service, ...), the client method,
+ * the HTTP status and an outcome that also covers timeouts and I/O errors, which never get a status.
+ * Calls rejected by a circuit breaker or bulkhead never reach the client; they show up in the resilience4j.* metrics.
+ */
+@Component
+public class FeignMetricsCapability implements Capability {
+
+    public static final String METRIC = "feign.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public FeignMetricsCapability(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String status = "NONE";
+            String outcome = "IO_ERROR";
+            try {
+                Response response = client.execute(request, options);
+                status = String.valueOf(response.status());
+                outcome = Outcome.forStatus(response.status()).name();
+                return response;
+            } catch (SocketTimeoutException e) {
+                outcome = "TIMEOUT";
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } finally {
+                sample.stop(Timer.builder(METRIC)
+                        .description("Outbound Feign calls")
+                        .tag("client", clientName(request))
+                        .tag("method", methodName(request))
+                        .tag("status", status)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        };
+    }
+
+    private static String clientName(Request request) {
+        if (request.requestTemplate() == null || request.requestTemplate().feignTarget() == null) {
+            return "unknown";
+        }
+        return request.requestTemplate().feignTarget().name();
+    }
+
+    private static String methodName(Request request) {
+        if (request.requestTemplate() == null || request.requestTemplate().methodMetadata() == null) {
+            return "unknown";
+        }
+        return request.requestTemplate().methodMetadata().method().getName();
+    }
+}
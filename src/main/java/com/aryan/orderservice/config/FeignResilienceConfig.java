@@ -0,0 +1,18 @@
+package com.aryan.orderservice.config;
+
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Names every circuit breaker and bulkhead after its Feign client (user-service, product-service, coupon-service)
+ * instead of after each method, so a remote service is isolated, configured and measured as a whole.
+ */
+@Configuration
+public class FeignResilienceConfig {
+
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aryan.orderservice.config;
+
+import com.aryan.orderservice.filter.QueryCountFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Per-request SQL statement counting, off unless order.query-count.enabled=true ***/
+@Configuration
+@ConditionalOnProperty(name = "order.query-count.enabled", havingValue = "true")
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter() {
+        return new QueryCountFilter();
+    }
+}
@@ -0,0 +1,31 @@
+package com.aryan.orderservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds {@link RepositoryRowsInterceptor} to every Spring Data repository. Per-method timings come from the
+ * spring.data.repository.invocations timers that Spring Boot already registers.
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryRowsMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    new RepositoryRowsInterceptor(meterRegistry, repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
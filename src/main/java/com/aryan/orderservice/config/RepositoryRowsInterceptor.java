@@ -0,0 +1,85 @@
+package com.aryan.orderservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+/**
+ * Records the number of rows returned by each repository method as the {@value #METRIC} distribution,
+ * tagged with the repository and the method. Methods returning counts, flags or streams are not recorded.
+ */
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+
+    public static final String METRIC = "order.repository.rows";
+
+    private static final double[] ROW_BUCKETS = {1, 10, 100, 1_000, 10_000, 100_000};
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final String repository;
+
+    private final Map<Method, Optional<DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryRowsInterceptor(ObjectProvider<MeterRegistry> meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        summaries.computeIfAbsent(invocation.getMethod(), this::summary)
+                .ifPresent(summary -> summary.record(rows(result)));
+        return result;
+    }
+
+    private Optional<DistributionSummary> summary(Method method) {
+        Class<?> returnType = method.getReturnType();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null || returnType == void.class || returnType == boolean.class || returnType == Boolean.class
+                || returnType.isPrimitive() || Number.class.isAssignableFrom(returnType)
+                || BaseStream.class.isAssignableFrom(returnType)) {
+            return Optional.empty();
+        }
+        return Optional.of(DistributionSummary.builder(METRIC)
+                .description("Rows returned by a repository method")
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .serviceLevelObjectives(ROW_BUCKETS)
+                .register(registry));
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> iterable) {
+            long rows = 0;
+            for (Object ignored : iterable) {
+                rows++;
+            }
+            return rows;
+        }
+        return 1;
+    }
+}
@@ -1,14 +1,26 @@
 package com.aryan.orderservice.controller;
 
 import com.aryan.orderservice.dto.AnalyticsResponse;
+import com.aryan.orderservice.dto.BulkStatusChangeRequest;
+import com.aryan.orderservice.dto.BulkStatusChangeResult;
 import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.enums.OrderStatus;
 import com.aryan.orderservice.services.admin.adminOrder.AdminOrderService;
+import com.aryan.orderservice.services.admin.adminOrder.BulkOrderStatusService;
+import com.aryan.orderservice.utils.OrderETag;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -17,27 +29,111 @@ import java.util.List;
 @Slf4j
 public class AdminOrderController {
 
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	@Autowired
 	private final AdminOrderService adminOrderService;
 
+	@Autowired
+	private final BulkOrderStatusService bulkOrderStatusService;
+
+	@Autowired
+	private final ObjectMapper objectMapper;
+
+	@Value("${order.placed-orders.page-size:500}")
+	private int defaultPageSize;
+
+	@Value("${order.placed-orders.max-page-size:2000}")
+	private int maxPageSize;
+
+	/**
+	 * Without paging parameters the whole list is returned as before. With {@code afterId} and/or {@code limit}
+	 * a keyset page is returned and the id to resume from is sent in the {@value #NEXT_CURSOR_HEADER} header.
+	 */
 	@GetMapping("/placedOrders")
-	public ResponseEntity<List<OrderDto>> getAllPlacedOrders() {
-		log.info("Received request to get all placed orders");
-		List<OrderDto> orders = adminOrderService.getAllPlacedOrders();
+	public ResponseEntity<List<OrderDto>> getAllPlacedOrders(@RequestParam(required = false) Long afterId,
+															 @RequestParam(required = false) Integer limit) {
+		if (afterId == null && limit == null) {
+			log.info("Received request to get all placed orders");
+			List<OrderDto> orders = adminOrderService.getAllPlacedOrders();
+			log.info("Returning {} placed orders", orders.size());
+			return ResponseEntity.ok(orders);
+		}
+
+		int pageSize = pageSize(limit);
+		log.info("Received request to get placed orders after id: {} (limit {})", afterId, pageSize);
+		List<OrderDto> orders = adminOrderService.getPlacedOrdersPage(afterId, pageSize);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (orders.size() == pageSize) {
+			response.header(NEXT_CURSOR_HEADER, String.valueOf(orders.get(orders.size() - 1).getId()));
+		}
 		log.info("Returning {} placed orders", orders.size());
-		return ResponseEntity.ok(orders);
+		return response.body(orders);
 	}
 
+	/** Streams every placed order as newline-delimited JSON, reading the table one keyset page at a time ***/
+	@GetMapping(value = "/placedOrders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamPlacedOrders(@RequestParam(required = false) Integer limit) {
+		log.info("Received request to stream all placed orders");
+		int pageSize = pageSize(limit);
+		StreamingResponseBody body = outputStream -> adminOrderService.streamPlacedOrders(pageSize, page -> {
+			try {
+				for (OrderDto orderDto : page) {
+					outputStream.write(objectMapper.writeValueAsBytes(orderDto));
+					outputStream.write('\n');
+				}
+				outputStream.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	private int pageSize(Integer limit) {
+		if (limit == null || limit < 1) {
+			return defaultPageSize;
+		}
+		return Math.min(limit, maxPageSize);
+	}
+
+	/** Conditional on the If-Match header when present: 409 when the order has changed since that ETag, 400 for an unknown status ***/
 	@PutMapping("/order/{orderId}/{status}")
-	public ResponseEntity<?> changeOrderStatus(@PathVariable Long orderId, @PathVariable String status) {
+	public ResponseEntity<?> changeOrderStatus(@PathVariable Long orderId, @PathVariable String status,
+											   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		log.info("Received request to change order status for orderId: {} to status: {}", orderId, status);
-		OrderDto orderDto = adminOrderService.changeOrderStatus(orderId, status);
+		OrderDto orderDto;
+		try {
+			orderDto = adminOrderService.changeOrderStatus(orderId, status, OrderETag.expectedVersion(ifMatch));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 		if (orderDto == null) {
 			log.warn("Failed to change order status for orderId: {}", orderId);
 			return ResponseEntity.badRequest().body("Something Went Wrong!!");
 		}
 		log.info("Successfully changed order status for orderId: {} to status: {}", orderId, status);
-		return ResponseEntity.ok(orderDto);
+		return OrderETag.ok(orderDto.getVersion()).body(orderDto);
+	}
+
+	/** Moves every listed order that the lifecycle allows to the requested status, see BulkStatusChangeResult ***/
+	@PutMapping("/orders/status")
+	public ResponseEntity<?> changeOrderStatuses(@RequestBody BulkStatusChangeRequest request) {
+		OrderStatus target;
+		try {
+			target = OrderStatus.valueOf(String.valueOf(request.getStatus()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Unknown status " + request.getStatus());
+		}
+		if (request.getOrderIds() == null || request.getOrderIds().isEmpty()) {
+			return ResponseEntity.badRequest().body("orderIds is required");
+		}
+		log.info("Received request to change the status of {} orders to {}", request.getOrderIds().size(), target);
+		BulkStatusChangeResult result = bulkOrderStatusService.changeOrderStatuses(request.getOrderIds(), target);
+		log.info("Changed {} orders to {} ({} unchanged, {} rejected, {} not found, {} conflicted)", result.getChanged().size(),
+				target, result.getUnchanged().size(), result.getRejected().size(), result.getNotFound().size(),
+				result.getConflicted().size());
+		return ResponseEntity.ok(result);
 	}
 
 	@GetMapping("/order/analytics")
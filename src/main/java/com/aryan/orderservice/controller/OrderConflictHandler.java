@@ -0,0 +1,23 @@
+package com.aryan.orderservice.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * A write conditioned on an order version (If-Match, or the version sent in the body) that lost the race:
+ * answered with 409 so the caller reloads the order instead of overwriting the other write.
+ */
+@RestControllerAdvice
+@Slf4j
+public class OrderConflictHandler {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException e) {
+        log.debug("Conflicting order write: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The order was changed by another request, reload it and retry");
+    }
+}
@@ -1,23 +1,29 @@
 package com.aryan.orderservice.controller;
 
+import com.aryan.orderservice.dto.BulkOrderResult;
 import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderPatch;
 import com.aryan.orderservice.dto.OrderRequest;
 import com.aryan.orderservice.enums.OrderStatus;
-import com.aryan.orderservice.model.Order;
-import com.aryan.orderservice.repository.OrderRepository;
 import com.aryan.orderservice.services.admin.adminOrder.AdminOrderServiceImpl;
+import com.aryan.orderservice.services.order.BulkOrderService;
+import com.aryan.orderservice.services.order.OrderService;
+import com.aryan.orderservice.utils.OrderETag;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Date;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /** This controller is an API for communicate with services ***/
 @RestController
@@ -25,41 +31,42 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderController {
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderService orderService;
 
     @Autowired
     private AdminOrderServiceImpl adminOrderService;
 
-    @PostMapping("/api/microservice/orders")
-    public ResponseEntity<Void> createOrder(@RequestBody OrderRequest orderRequest) {
-        Order order = Order.builder()
-                .userId(orderRequest.getUserId())
-                .amount(orderRequest.getAmount())
-                .totalAmount(orderRequest.getTotalAmount())
-                .discount(orderRequest.getDiscount())
-                .orderStatus(OrderStatus.valueOf(orderRequest.getOrderStatus()))
-                .build();
-
-        orderRepository.save(order);
+    @Autowired
+    private BulkOrderService bulkOrderService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
 
-        orderRepository.save(order);
+    @PostMapping("/api/microservice/orders")
+    public ResponseEntity<Void> createOrder(@RequestBody OrderRequest orderRequest) {
+        orderService.createOrder(orderRequest);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
-//    @GetMapping("/api/microservice/orders/{id}")
-    public ResponseEntity<Order> findOrderById(@PathVariable Long id) {
-        return ResponseEntity.ok(orderRepository.findById(id).orElseThrow());
+    /**
+     * Creates the orders of a JSON array or of an NDJSON stream (one OrderRequest per line). The body is read
+     * as the orders are written, the answer holds one BulkOrderResult per request.
+     */
+    @PostMapping(value = "/api/microservice/orders/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<BulkOrderResult>> createOrders(InputStream body) throws IOException {
+        try (MappingIterator<OrderRequest> requests = objectMapper.readerFor(OrderRequest.class).readValues(body)) {
+            return ResponseEntity.ok(bulkOrderService.createOrders(requests));
+        }
     }
 
     @GetMapping("/api/microservice/orders/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
-        if (orderRepository.findById(id).isPresent()) {
-            Order order = orderRepository.findById(id).get();
-
-            return ResponseEntity.ok(orderRepository.findById(id).orElseThrow().getOrderDto());
+        OrderDto orderDto = orderService.getOrderById(id);
+        if (orderDto == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        return OrderETag.ok(orderDto.getVersion()).body(orderDto);
     }
 
     @GetMapping("/api/microservice/{userId}/{status}")
@@ -72,45 +79,58 @@ public class OrderController {
         return ResponseEntity.ok(orderDto);
     }
 
+    /**
+     * An If-Match header (the ETag of a previous read) or a version in the body makes the update conditional:
+     * answered with 409 when the order has changed since.
+     */
     @PutMapping("/api/microservice/addorder/orders")
-    public ResponseEntity<?> addOrder(@RequestBody OrderDto orderDto) {
-        Order order = this.findOrderById(orderDto.getId()).getBody();
-        order.setAddress(orderDto.getAddress());
-        order.setOrderStatus(orderDto.getOrderStatus());
-        order.setTotalAmount(orderDto.getTotalAmount());
-        order.setDiscount(orderDto.getDiscount());
-        order.setOrderDescription(orderDto.getOrderDescription());
-        order.setUserId(orderDto.getUserId());
-        order.setAmount(orderDto.getAmount());
-        order.setCouponId(orderDto.getCouponId());
-        order.setCartItems(orderDto.getCartItems());
-        order.setTrackingId(orderDto.getTrackingId());
-        order.setDate(orderDto.getDate() != null ? order.getDate() : new Date());
-        log.info("Order date is {}", order.getDate());
-        orderRepository.save(order);
-        orderRepository.flush();
-        log.info("Order saved with new date: {}", order.getDate());
-
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> addOrder(@RequestBody OrderDto orderDto,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = OrderETag.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            orderDto.setVersion(expectedVersion);
+        }
+        OrderDto updated = orderService.updateOrder(orderDto);
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
+        }
+        log.debug("Order saved with new date: {}", updated.getDate());
+
+        return OrderETag.ok(updated.getVersion()).body(updated);
+    }
+
+    /**
+     * Partial update: only the fields present in the body are written, the cart items are kept. Conditional on the
+     * If-Match header when present, like addOrder. A body with no field is answered with 400.
+     */
+    @PatchMapping("/api/microservice/orders/{id}")
+    public ResponseEntity<?> patchOrder(@PathVariable Long id, @RequestBody OrderPatch patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        OrderDto updated;
+        try {
+            updated = orderService.patchOrder(id, patch, OrderETag.expectedVersion(ifMatch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return OrderETag.ok(updated.getVersion()).body(updated);
     }
 
     @GetMapping("/api/microservice/getmyplacedorder/orders/{userId}")
     public ResponseEntity<OrderDto>  getCartByUserId(@PathVariable("userId") Long userId) {
-        Order order =  orderRepository.findByUserIdAndOrderStatus(userId, OrderStatus.Pending);
-        if (order == null) {
+        OrderDto orderDto = orderService.getCartByUserId(userId);
+        if (orderDto == null) {
             return ResponseEntity.notFound().build();
         }
-        log.info(order.toString());
-        return ResponseEntity.ok(order.getOrderDto());
+        return ResponseEntity.ok(orderDto);
     }
 
     @GetMapping("/api/microservice/myOrders/{userId}")
     public ResponseEntity<List<OrderDto>> getMyPlacedOrders(@PathVariable Long userId){
-        log.info("Received request to get placed orders for user with ID: {}", userId);
-        List<OrderDto> orderDtoList = orderRepository
-                .findByUserIdAndOrderStatusIn(userId,
-                        List.of(OrderStatus.Shipped, OrderStatus.Placed, OrderStatus.Delivered))
-                .stream().map(Order::getOrderDto).collect(Collectors.toList());
+        log.debug("Received request to get placed orders for user with ID: {}", userId);
+        List<OrderDto> orderDtoList = orderService.getMyPlacedOrders(userId);
         if (orderDtoList.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -119,9 +139,9 @@ public class OrderController {
 
     @GetMapping("/api/microservice/getmyplacedorder/tracking/{trackingId}")
     public ResponseEntity<OrderDto>  getByTracking(@PathVariable("trackingId") UUID trackingId) {
-        Optional<Order> order = orderRepository.findByTrackingId(trackingId);
-        if (order.isPresent()) {
-            return ResponseEntity.ok(order.get().getOrderDto());
+        OrderDto orderDto = orderService.getOrderByTrackingId(trackingId);
+        if (orderDto != null) {
+            return ResponseEntity.ok(orderDto);
         }
         return ResponseEntity.notFound().build();
     }
@@ -0,0 +1,48 @@
+package com.aryan.orderservice.controller;
+
+import com.aryan.orderservice.dto.OrderEventDto;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Replay of the published order change events kept in the outbox, for consumers that missed deliveries from the
+ * sink or start from scratch. Pages follow the events' position: pass the {@value AdminOrderController#NEXT_CURSOR_HEADER}
+ * of a page (or the position of the last event processed) as {@code after} to get the next one.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventController {
+
+    @Autowired
+    private final OrderOutbox orderOutbox;
+
+    @Value("${order.outbox.replay.page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${order.outbox.replay.max-page-size:2000}")
+    private int maxPageSize;
+
+    @GetMapping("/api/microservice/orders/events")
+    public ResponseEntity<List<OrderEventDto>> replay(@RequestParam(required = false) Long after,
+                                                      @RequestParam(required = false) Long orderId,
+                                                      @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+        log.debug("Replaying order events after position: {} (order {}, limit {})", after, orderId, pageSize);
+        List<OrderEventDto> events = orderOutbox.replay(orderId, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (events.size() == pageSize) {
+            response.header(AdminOrderController.NEXT_CURSOR_HEADER, String.valueOf(events.get(events.size() - 1).getPosition()));
+        }
+        return response.body(events);
+    }
+}
@@ -0,0 +1,45 @@
+package com.aryan.orderservice.controller;
+
+import com.aryan.orderservice.services.product.ProductImage;
+import com.aryan.orderservice.services.product.ProductImageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Product images referenced by {@code CartItemsDto.imageUrl}. Responses carry an ETag and a public Cache-Control,
+ * a matching If-None-Match is answered 304 without a body, and the cached bytes are written as they are.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ProductImageController {
+
+    private final ProductImageService productImageService;
+
+    @Value("${order.product-image.max-age:PT1H}")
+    private Duration maxAge;
+
+    @GetMapping("/api/microservice/products/{productId}/image")
+    public ResponseEntity<Resource> getProductImage(@PathVariable Long productId) {
+        return productImageService.findImage(productId)
+                .map(this::imageResponse)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<Resource> imageResponse(ProductImage image) {
+        return ResponseEntity.ok()
+                .eTag(image.eTag())
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .contentType(image.contentType())
+                .contentLength(image.bytes().length)
+                .body(new ByteArrayResource(image.bytes()));
+    }
+}
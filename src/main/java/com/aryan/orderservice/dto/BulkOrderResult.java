@@ -0,0 +1,28 @@
+package com.aryan.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Outcome of one request of a bulk order creation, {@code index} is its position in the request body ***/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResult {
+
+    public enum Status {
+        /** Inserted, {@code orderId} is set ***/
+        CREATED,
+        /** Not a valid order request, nothing was written for it ***/
+        REJECTED,
+        /** Valid, but the transaction of its chunk was rolled back ***/
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private Long orderId;
+    private String error;
+}
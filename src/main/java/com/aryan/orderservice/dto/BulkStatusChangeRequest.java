@@ -0,0 +1,17 @@
+package com.aryan.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusChangeRequest {
+    private List<Long> orderIds;
+    private String status; // ex : "Shipped"
+}
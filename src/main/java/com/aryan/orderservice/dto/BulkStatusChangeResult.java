@@ -0,0 +1,33 @@
+package com.aryan.orderservice.dto;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Outcome of a bulk status change, every requested id ends up in exactly one of the lists ***/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusChangeResult {
+    private OrderStatus status;
+    /** Moved to the target status ***/
+    @Builder.Default
+    private List<Long> changed = new ArrayList<>();
+    /** Already in the target status ***/
+    @Builder.Default
+    private List<Long> unchanged = new ArrayList<>();
+    /** The lifecycle does not allow the move from their current status ***/
+    @Builder.Default
+    private List<Long> rejected = new ArrayList<>();
+    @Builder.Default
+    private List<Long> notFound = new ArrayList<>();
+    /** Changed by another writer on every attempt, left as they were ***/
+    @Builder.Default
+    private List<Long> conflicted = new ArrayList<>();
+}
@@ -16,6 +16,11 @@ public class CartItemsDto {
 	private Long productId;
 	private Long orderId;
 	private String productName;
-	private byte[] returnedImage;
+	/** Served by ProductImageController, the bytes are no longer part of the order payloads ***/
+	private String imageUrl;
 	private Long userId;
+
+	public static String imageUrl(Long productId) {
+		return productId != null ? "/api/microservice/products/" + productId + "/image" : null;
+	}
 }
@@ -46,4 +46,6 @@ public class OrderDto {
 	private Long couponId;
 
 	private String couponCode;
+
+	private Long version;
 }
@@ -0,0 +1,29 @@
+package com.aryan.orderservice.dto;
+
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * An order change as published to the sink and served by the replay endpoint. {@code id} identifies the event (a
+ * relay retried after a failure may send it again); {@code position} is the replay cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEventDto {
+    private Long id;
+    private Long orderId;
+    private Long userId;
+    private OrderEventType eventType;
+    private OrderStatus orderStatus;
+    private Long orderVersion;
+    private Date createdAt;
+    private Long position;
+}
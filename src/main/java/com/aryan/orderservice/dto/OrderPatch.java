@@ -0,0 +1,26 @@
+package com.aryan.orderservice.dto;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/** Body of PATCH /api/microservice/orders/{id}: only the non-null fields are written, cart items are left alone ***/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPatch {
+    private String orderDescription;
+    private Long amount;
+    private String address;
+    private String payment;
+    private OrderStatus orderStatus;
+    private Long totalAmount;
+    private Long discount;
+    private Long couponId;
+    private UUID trackingId;
+}
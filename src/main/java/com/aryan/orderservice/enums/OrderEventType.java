@@ -0,0 +1,8 @@
+package com.aryan.orderservice.enums;
+
+/** What happened to an order, as recorded in the outbox. Persisted by name ***/
+public enum OrderEventType {
+	CREATED,
+	UPDATED,
+	STATUS_CHANGED
+}
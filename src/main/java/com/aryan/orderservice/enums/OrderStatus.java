@@ -1,8 +1,43 @@
 package com.aryan.orderservice.enums;
 
+/**
+ * Persisted through its {@link #getCode() code}, never through the ordinal or the name.
+ * Codes follow the order lifecycle and leave gaps, so a new status can be slotted in
+ * without rewriting existing rows and range filters on the column keep their meaning.
+ */
 public enum OrderStatus {
-	Pending,
-	Placed,
-	Shipped,
-	Delivered
+	Pending((short) 10),
+	Placed((short) 20),
+	Shipped((short) 30),
+	Delivered((short) 40);
+
+	private final short code;
+
+	OrderStatus(short code) {
+		this.code = code;
+	}
+
+	public short getCode() {
+		return code;
+	}
+
+	/**
+	 * Lifecycle: a cart (Pending) can only be placed, a placed order moves forward to Shipped or Delivered,
+	 * a shipped one to Delivered. Nothing leaves Delivered.
+	 */
+	public boolean canTransitionTo(OrderStatus target) {
+		if (this == Pending) {
+			return target == Placed;
+		}
+		return target.code > code;
+	}
+
+	public static OrderStatus fromCode(short code) {
+		for (OrderStatus status : values()) {
+			if (status.code == code) {
+				return status;
+			}
+		}
+		throw new IllegalArgumentException("Unknown order status code: " + code);
+	}
 }
@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.Optional;
 
-@FeignClient("coupon-service")
+@FeignClient(name = "coupon-service", fallbackFactory = CouponFeignClientFallbackFactory.class)
 public interface CouponFeignClient {
     @GetMapping("/api/admin/coupons/{id}")
     Optional<CouponDto> getCouponDtoByCode(@PathVariable("code") String code);
@@ -0,0 +1,21 @@
+package com.aryan.orderservice.feign;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/** Used when coupon-service is unavailable: orders are served without their coupon name ***/
+@Component
+@Slf4j
+public class CouponFeignClientFallbackFactory implements FallbackFactory<CouponFeignClient> {
+
+    @Override
+    public CouponFeignClient create(Throwable cause) {
+        return code -> {
+            log.warn("coupon-service unavailable for coupon: {} ({})", code, cause.toString());
+            return Optional.empty();
+        };
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-@FeignClient("product-service")
+@FeignClient(name = "product-service", fallbackFactory = ProductFeignFallbackFactory.class)
 public interface ProductFeign {
     @GetMapping("/product/{productId}")
     ProductDto getProductById(@PathVariable Long productId) ;
@@ -0,0 +1,20 @@
+package com.aryan.orderservice.feign;
+
+import com.aryan.orderservice.dto.ProductDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/** Used when product-service is unavailable: the product is reported as unknown ***/
+@Component
+@Slf4j
+public class ProductFeignFallbackFactory implements FallbackFactory<ProductFeign> {
+
+    @Override
+    public ProductFeign create(Throwable cause) {
+        return productId -> {
+            log.warn("product-service unavailable for productId: {} ({})", productId, cause.toString());
+            return null;
+        };
+    }
+}
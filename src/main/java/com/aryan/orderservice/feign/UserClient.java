@@ -5,9 +5,18 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "user-service")
+import java.util.Collection;
+import java.util.List;
+
+@FeignClient(name = "user-service", fallbackFactory = UserClientFallbackFactory.class)
 public interface UserClient {
     @GetMapping("/api/users/{userID}")
     ResponseEntity<UserDto> getUserById(@PathVariable Long userID);
+
+    /** Batch lookup: returns the users found among the given ids, unknown ids are simply absent ***/
+    @PostMapping("/api/users/batch")
+    ResponseEntity<List<UserDto>> getUsersByIds(@RequestBody Collection<Long> userIds);
 }
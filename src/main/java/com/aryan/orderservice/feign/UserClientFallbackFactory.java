@@ -0,0 +1,42 @@
+package com.aryan.orderservice.feign;
+
+import com.aryan.orderservice.dto.UserDto;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Used when user-service times out, fails, is short-circuited or when its bulkhead is full:
+ * answers 503 so that callers serve orders without user names instead of failing.
+ */
+@Component
+@Slf4j
+public class UserClientFallbackFactory implements FallbackFactory<UserClient> {
+
+    @Override
+    public UserClient create(Throwable cause) {
+        return new UserClient() {
+            @Override
+            public ResponseEntity<UserDto> getUserById(Long userID) {
+                log.warn("user-service unavailable for userId: {} ({})", userID, cause.toString());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+
+            @Override
+            public ResponseEntity<List<UserDto>> getUsersByIds(Collection<Long> userIds) {
+                // A missing batch endpoint is an answer, not an outage: let UserLookupService switch to per-id lookups
+                if (cause instanceof FeignException.NotFound || cause instanceof FeignException.MethodNotAllowed) {
+                    throw (FeignException) cause;
+                }
+                log.warn("user-service unavailable for {} users ({})", userIds.size(), cause.toString());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.aryan.orderservice.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Structured access log, one event per request on the {@value #LOGGER} logger with key/value pairs
+ * (method, uri, status, duration_ms, auth, client, user and error when present). Successful requests are sampled at {@code sampleRate};
+ * server errors, failed requests and requests slower than {@code slowThreshold} are always logged.
+ * Credentials never reach the log: only the Authorization scheme is kept and sensitive query parameters are masked.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String LOGGER = "access";
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER);
+
+    private static final Pattern SENSITIVE_QUERY_PARAMETER =
+            Pattern.compile("(?i)((?:^|&)[^=&]*(?:token|password|secret|key)[^=&]*=)[^&]*");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(double sampleRate, Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (log.isInfoEnabled() && shouldLog(status, elapsed, failure)) {
+                LoggingEventBuilder event = log.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("uri", uri(request))
+                        .addKeyValue("status", status)
+                        .addKeyValue("duration_ms", elapsed / 1_000 / 1_000.0)
+                        .addKeyValue("auth", authScheme(request.getHeader(HttpHeaders.AUTHORIZATION)))
+                        .addKeyValue("client", request.getRemoteAddr());
+                String user = request.getHeader("X-User");
+                if (user != null) {
+                    event = event.addKeyValue("user", user);
+                }
+                if (failure != null) {
+                    event = event.addKeyValue("error", failure.getClass().getSimpleName());
+                }
+                event.log();
+            }
+        }
+    }
+
+    private boolean shouldLog(int status, long elapsedNanos, Throwable failure) {
+        return failure != null
+                || status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                || elapsedNanos >= slowThresholdNanos
+                || (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate));
+    }
+
+    static String uri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        if (query == null) {
+            return request.getRequestURI();
+        }
+        return request.getRequestURI() + "?" + SENSITIVE_QUERY_PARAMETER.matcher(query).replaceAll("$1***");
+    }
+
+    /** "Bearer", "Basic", ... without the credentials that follow, "none" when the header is absent ***/
+    static String authScheme(String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            return "none";
+        }
+        int space = authorization.indexOf(' ');
+        return space > 0 ? authorization.substring(0, space) : "***";
+    }
+}
@@ -0,0 +1,31 @@
+package com.aryan.orderservice.filter;
+
+import com.aryan.orderservice.config.QueryCountInspector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/** Records how many SQL statements a request issued, as the {@value #QUERY_COUNT_ATTRIBUTE} request attribute ***/
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_ATTRIBUTE = "order.queryCount";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCountInspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queryCount = QueryCountInspector.stop();
+            request.setAttribute(QUERY_COUNT_ATTRIBUTE, queryCount);
+            log.debug("{} {} issued {} SQL statements", request.getMethod(), request.getRequestURI(), queryCount);
+        }
+    }
+}
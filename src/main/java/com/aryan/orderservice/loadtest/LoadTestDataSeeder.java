@@ -0,0 +1,107 @@
+package com.aryan.orderservice.loadtest;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills the (empty) load-test database before the server starts accepting requests, so that scenarios can
+ * address orders without knowing the data: order ids run from 1 to {@code orders}, order {@code n} belongs to
+ * user {@code (n - 1) % users + 1} and has tracking id {@code new UUID(0, n)}. One user in five has a pending
+ * cart, the others only have placed, shipped or delivered orders spread over the last two years.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class LoadTestDataSeeder {
+
+    private static final String INSERT_ORDER = "insert into orders (id, order_description, date, amount, address, payment,"
+            + " total_amount, discount, order_status, user_id, coupon_id, tracking_id, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final long TWO_YEARS_MS = 730L * 24 * 60 * 60 * 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final OrderRepository orderRepository;
+
+    private final long orders;
+
+    private final long users;
+
+    private final int batchSize;
+
+    /** The repository is only injected so that Hibernate has created the schema before seeding ***/
+    public LoadTestDataSeeder(JdbcTemplate jdbcTemplate, OrderRepository orderRepository,
+                              @Value("${order.loadtest.seed.orders:1000000}") long orders,
+                              @Value("${order.loadtest.seed.users:100000}") long users,
+                              @Value("${order.loadtest.seed.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.orders = orders;
+        this.users = Math.max(1, Math.min(users, orders));
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void seed() {
+        if (orderRepository.count() > 0) {
+            log.info("Load-test database already holds orders, skipping the seed");
+            return;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (long n = 1; n <= orders; n++) {
+            batch.add(row(n, now));
+            if (batch.size() == batchSize || n == orders) {
+                jdbcTemplate.batchUpdate(INSERT_ORDER, batch);
+                batch.clear();
+            }
+        }
+        // orders_seq is pooled by 50: the next pool handed out to Hibernate starts right after the seeded ids
+        jdbcTemplate.execute("alter sequence orders_seq restart with " + (orders + 50));
+        log.info("Seeded {} orders for {} users in {} ms", orders, users, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Object[] row(long n, long now) {
+        Random random = new Random(n);
+        long userId = (n - 1) % users + 1;
+        // the first order of every fifth user is their pending cart
+        OrderStatus status = n <= users && userId % 5 == 0 ? OrderStatus.Pending : placedStatus(random);
+        long amount = 1_000L + random.nextInt(99_000);
+        long discount = random.nextInt(4) == 0 ? amount / 10 : 0L;
+        return new Object[]{
+                n,
+                "Load-test order " + n,
+                new Timestamp(now - (long) (random.nextDouble() * TWO_YEARS_MS)),
+                amount,
+                n + " Load Test Street",
+                "CARD",
+                amount - discount,
+                discount,
+                status.getCode(),
+                userId,
+                discount > 0 ? 1L + random.nextInt(20) : null,
+                new UUID(0L, n)
+        };
+    }
+
+    private static OrderStatus placedStatus(Random random) {
+        int draw = random.nextInt(10);
+        if (draw < 2) {
+            return OrderStatus.Placed;
+        }
+        return draw < 4 ? OrderStatus.Shipped : OrderStatus.Delivered;
+    }
+}
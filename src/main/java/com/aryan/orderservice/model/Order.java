@@ -5,26 +5,42 @@ import com.aryan.orderservice.dto.CouponDto;
 import com.aryan.orderservice.dto.OrderDto;
 import com.aryan.orderservice.dto.UserDto;
 import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.converter.OrderStatusConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/** Updates only write the columns that changed (plus the version), see OrderService.patchOrder ***/
 @Entity
+@DynamicUpdate
 @Data
 @AllArgsConstructor
 @Builder
 @NoArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_status", columnList = "user_id, order_status"),
+        @Index(name = "ux_orders_tracking_id", columnList = "tracking_id", unique = true),
+        @Index(name = "idx_orders_status_date", columnList = "order_status, date")
+})
 public class Order {
 
+    /** Pooled sequence rather than IDENTITY, so that Hibernate can batch the inserts of BulkOrderService ***/
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String orderDescription;
@@ -42,6 +58,7 @@ public class Order {
 
     private Long discount;
 
+    @Convert(converter = OrderStatusConverter.class)
     private OrderStatus orderStatus;
 
 //    @ManyToOne
@@ -60,14 +77,24 @@ public class Order {
     @Transient
     private CouponDto coupon;
 
-//    @OneToMany(fetch = FetchType.LAZY, mappedBy = "order")
-//    private List<CartItems> cartItems;
-
-    @Transient
-    private List<CartItemsDto> cartItems;
+    /**
+     * The repository queries that return orders to the endpoints fetch the items with them (see OrderRepository).
+     * Elsewhere the items of up to 50 loaded orders are read by one query the first time any of them is used.
+     */
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private List<OrderItem> items = new ArrayList<>();
 
     private UUID trackingId;
 
+    /** Optimistic lock: every entity UPDATE is conditioned on it, clients see it as the ETag of the order ***/
+    @Version
+    private Long version;
+
     public OrderDto getOrderDto() {
 
         return OrderDto.builder()
@@ -81,14 +108,34 @@ public class Order {
                 .payment(payment)
                 .orderStatus(orderStatus)
                 .trackingId(trackingId)
+                .version(version)
                 .userId(userId)
                 .userName(user != null ? user.getName() : null)
                 .couponName(coupon != null ? coupon.getName() : null)
                 .couponId(couponId)
                 .couponCode(coupon != null ? coupon.getCode() : null)
-                .cartItems(cartItems != null ? cartItems : null)
-                .build(); /** À adapter pour épondre à la cart ***/
+                .cartItems(items.isEmpty() ? null : items.stream().map(OrderItem::getCartItemsDto).toList())
+                .build();
+
+    }
 
+    /** Replaces the cart: items sent back with their id are updated in place, the others are inserted or removed ***/
+    public void replaceItems(List<CartItemsDto> cartItems) {
+        Map<Long, OrderItem> current = new HashMap<>();
+        for (OrderItem item : items) {
+            current.put(item.getId(), item);
+        }
+        List<OrderItem> replaced = new ArrayList<>(cartItems.size());
+        for (CartItemsDto cartItem : cartItems) {
+            OrderItem item = cartItem.getId() != null ? current.remove(cartItem.getId()) : null;
+            if (item == null) {
+                item = OrderItem.builder().order(this).build();
+            }
+            item.update(cartItem);
+            replaced.add(item);
+        }
+        items.clear();
+        items.addAll(replaced);
     }
 
 }
@@ -0,0 +1,75 @@
+package com.aryan.orderservice.model;
+
+import com.aryan.orderservice.dto.OrderEventDto;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.converter.OrderStatusConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * One row of the transactional outbox: written in the transaction that changes the order, published later by
+ * OrderOutboxRelay. Ids come from a pooled sequence, so they only follow commit order within one instance; the
+ * events of one order are ordered by {@code orderVersion}, which every write of the order increments. The relay
+ * gives each event a {@code position} as it publishes it: positions follow publication order and are the replay cursor.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_published", columnList = "published_at, id"),
+        @Index(name = "ux_order_events_position", columnList = "stream_position", unique = true),
+        @Index(name = "idx_order_events_order_position", columnList = "order_id, stream_position")
+})
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderEventType eventType;
+
+    @Convert(converter = OrderStatusConverter.class)
+    private OrderStatus orderStatus;
+
+    /** The order version the event leaves behind, the same value as the ETag of the order ***/
+    private Long orderVersion;
+
+    @Column(nullable = false)
+    private Date createdAt;
+
+    /** Null until the relay has handed the event to the sink ***/
+    private Date publishedAt;
+
+    /** Null until published; then the event's place in the stream, as served by the replay endpoint ***/
+    @Column(name = "stream_position")
+    private Long position;
+
+    public OrderEventDto getOrderEventDto() {
+        return OrderEventDto.builder()
+                .id(id)
+                .orderId(orderId)
+                .userId(userId)
+                .eventType(eventType)
+                .orderStatus(orderStatus)
+                .orderVersion(orderVersion)
+                .createdAt(createdAt)
+                .position(position)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.aryan.orderservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row OrderOutboxRelay locks for the duration of a batch: one relay at a time across instances. It also
+ * holds the last replay position handed out, so positions keep growing after the purge has deleted old events.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+@Table(name = "order_event_relay")
+public class OrderEventRelayState {
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long lastPosition;
+}
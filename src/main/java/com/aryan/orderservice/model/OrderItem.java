@@ -0,0 +1,67 @@
+package com.aryan.orderservice.model;
+
+import com.aryan.orderservice.dto.CartItemsDto;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One line of an order's cart. Ids come from a pooled sequence (one round trip per 50 items) rather than
+ * IDENTITY, so that the inserts of a cart go out as a single JDBC batch.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id")
+})
+public class OrderItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Order order;
+
+    private Long productId;
+
+    private String productName;
+
+    private Long price;
+
+    private Long quantity;
+
+    private Long userId;
+
+    void update(CartItemsDto cartItem) {
+        productId = cartItem.getProductId();
+        productName = cartItem.getProductName();
+        price = cartItem.getPrice();
+        quantity = cartItem.getQuantity();
+        userId = cartItem.getUserId() != null ? cartItem.getUserId() : order.getUserId();
+    }
+
+    public CartItemsDto getCartItemsDto() {
+        return CartItemsDto.builder()
+                .id(id)
+                .orderId(order != null ? order.getId() : null)
+                .productId(productId)
+                .productName(productName)
+                .price(price)
+                .quantity(quantity)
+                .userId(userId)
+                .imageUrl(CartItemsDto.imageUrl(productId))
+                .build();
+    }
+}
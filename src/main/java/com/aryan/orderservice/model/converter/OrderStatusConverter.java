@@ -0,0 +1,20 @@
+package com.aryan.orderservice.model.converter;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Stores {@link OrderStatus} as its stable smallint code ***/
+@Converter(autoApply = true)
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderStatus status) {
+        return status != null ? status.getCode() : null;
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Short code) {
+        return code != null ? OrderStatus.fromCode(code) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.aryan.orderservice.repository;
+
+import com.aryan.orderservice.model.OrderEventRelayState;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.Optional;
+
+@RepositoryRestResource(exported = false)
+public interface OrderEventRelayStateRepository extends JpaRepository<OrderEventRelayState, Long> {
+
+    /** SELECT ... FOR UPDATE SKIP LOCKED: empty while another relay holds the row ***/
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    Optional<OrderEventRelayState> findLockedById(Long id);
+}
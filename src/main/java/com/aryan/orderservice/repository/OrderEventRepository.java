@@ -0,0 +1,37 @@
+package com.aryan.orderservice.repository;
+
+import com.aryan.orderservice.model.OrderEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/** The outbox table. Not exported by Spring Data REST: events are read through the replay endpoint ***/
+@RepositoryRestResource(exported = false)
+@Transactional(readOnly = true)
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /** The oldest unpublished events (idx_order_events_published) ***/
+    List<OrderEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+    /** Every unpublished event of the given orders, so that a relay batch never leaves an earlier one behind ***/
+    List<OrderEvent> findByPublishedAtIsNullAndOrderIdIn(Collection<Long> orderIds);
+
+    /** Replay: keyset page of published events after a position (ux_order_events_position) ***/
+    List<OrderEvent> findByPositionGreaterThanOrderByPositionAsc(Long afterPosition, Limit limit);
+
+    /** Replay of one order (idx_order_events_order_position) ***/
+    List<OrderEvent> findByOrderIdAndPositionGreaterThanOrderByPositionAsc(Long orderId, Long afterPosition, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OrderEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Date before);
+}
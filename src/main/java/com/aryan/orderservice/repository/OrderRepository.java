@@ -1,27 +1,132 @@
 package com.aryan.orderservice.repository;
 
 
+import com.aryan.orderservice.dto.OrderDto;
 import com.aryan.orderservice.enums.OrderStatus;
 import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.projection.MonthlyOrderTotals;
+import com.aryan.orderservice.repository.projection.OrderRow;
+import com.aryan.orderservice.repository.projection.OrderStatusCount;
+import com.aryan.orderservice.repository.projection.OrderStatusRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Read paths select {@link OrderRow} projections and fold them into OrderDtos ({@code find*Dto*} methods):
+ * no entity is loaded, snapshotted or dirty-checked. Entities are only loaded by the write paths.
+ * Unless a surrounding transaction says otherwise, every method runs in a read-only transaction.
+ */
 @RepositoryRestResource
+@Transactional(readOnly = true)
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    Order findByUserIdAndOrderStatus(Long userId, OrderStatus orderStatus);
 
-    List<Order> findAllByOrderStatusIn(List<OrderStatus> orderStatusList);
+    String ORDER_ROWS = """
+            select new com.aryan.orderservice.repository.projection.OrderRow(
+                o.id, o.orderDescription, o.date, o.amount, o.address, o.payment, o.totalAmount, o.discount,
+                o.orderStatus, o.userId, o.couponId, o.trackingId, o.version,
+                i.id, i.productId, i.productName, i.price, i.quantity, i.userId)
+            from Order o left join o.items i
+            """;
 
-    List<Order> findByUserIdAndOrderStatusIn(Long userId, List<OrderStatus> orderStatus);
+    /** Loads the order with its cart items in the same query, for the write paths ***/
+    @Override
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findById(Long id);
 
-    Optional<Order> findByTrackingId(UUID trackingId);
+    /** The order alone, for the writes that leave its cart items untouched ***/
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findWithoutItemsById(@Param("id") Long id);
 
-    List<Order> findByDateBetweenAndOrderStatus(Date startOfMonth, Date endOfMonth, OrderStatus status);
+    @Query("""
+            select new com.aryan.orderservice.repository.projection.OrderStatusCount(o.orderStatus, count(o))
+            from Order o
+            where o.orderStatus in :statuses
+            group by o.orderStatus""")
+    List<OrderStatusCount> countGroupedByOrderStatus(@Param("statuses") List<OrderStatus> statuses);
 
-    Long countByOrderStatus(OrderStatus status);
+    /** Count and earnings per status and calendar month for orders dated in [from, to) ***/
+    @Query("""
+            select new com.aryan.orderservice.repository.projection.MonthlyOrderTotals(
+                o.orderStatus, year(o.date), month(o.date), count(o), sum(o.amount))
+            from Order o
+            where o.orderStatus in :statuses and o.date >= :from and o.date < :to
+            group by o.orderStatus, year(o.date), month(o.date)""")
+    List<MonthlyOrderTotals> sumGroupedByStatusAndMonth(@Param("statuses") List<OrderStatus> statuses,
+                                                        @Param("from") Date from,
+                                                        @Param("to") Date to);
+
+    @Query(ORDER_ROWS + "where o.id = :id order by i.id")
+    List<OrderRow> findRowsById(@Param("id") Long id);
+
+    @Query(ORDER_ROWS + "where o.trackingId = :trackingId order by i.id")
+    List<OrderRow> findRowsByTrackingId(@Param("trackingId") UUID trackingId);
+
+    @Query(ORDER_ROWS + "where o.userId = :userId and o.orderStatus in :statuses order by o.id, i.id")
+    List<OrderRow> findRowsByUserIdAndOrderStatusIn(@Param("userId") Long userId,
+                                                    @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query(ORDER_ROWS + "where o.orderStatus in :statuses order by o.id, i.id")
+    List<OrderRow> findRowsByOrderStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query(ORDER_ROWS + "where o.id in :ids order by o.id, i.id")
+    List<OrderRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Keyset page of order ids, the row limit applies to orders rather than to order/item rows ***/
+    @Query("select o.id from Order o where o.orderStatus in :statuses and o.id > :afterId order by o.id")
+    List<Long> findIdsByOrderStatusInAndIdGreaterThan(@Param("statuses") Collection<OrderStatus> statuses,
+                                                      @Param("afterId") Long afterId, Limit limit);
+
+    @Query("""
+            select new com.aryan.orderservice.repository.projection.OrderStatusRow(
+                o.id, o.orderStatus, o.date, o.amount, o.userId, o.trackingId, o.version)
+            from Order o
+            where o.id in :ids""")
+    List<OrderStatusRow> findStatusRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set-based status change, only applied to the given orders still in {@code from}; returns the rows updated.
+     * Bumps the version like an entity update, so concurrent conditional writers see the change.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.orderStatus = :to, o.version = o.version + 1 where o.id in :ids and o.orderStatus = :from")
+    int updateOrderStatus(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    default Optional<OrderDto> findDtoById(Long id) {
+        return OrderRow.toOrderDtos(findRowsById(id)).stream().findFirst();
+    }
+
+    default Optional<OrderDto> findDtoByTrackingId(UUID trackingId) {
+        return OrderRow.toOrderDtos(findRowsByTrackingId(trackingId)).stream().findFirst();
+    }
+
+    default Optional<OrderDto> findDtoByUserIdAndOrderStatus(Long userId, OrderStatus status) {
+        return OrderRow.toOrderDtos(findRowsByUserIdAndOrderStatusIn(userId, List.of(status))).stream().findFirst();
+    }
+
+    default List<OrderDto> findDtosByUserIdAndOrderStatusIn(Long userId, Collection<OrderStatus> statuses) {
+        return OrderRow.toOrderDtos(findRowsByUserIdAndOrderStatusIn(userId, statuses));
+    }
+
+    default List<OrderDto> findDtosByOrderStatusIn(Collection<OrderStatus> statuses) {
+        return OrderRow.toOrderDtos(findRowsByOrderStatusIn(statuses));
+    }
+
+    /** Keyset page of orders with their items: one query for the page's ids, one for their rows ***/
+    default List<OrderDto> findDtoPageByOrderStatusIn(Collection<OrderStatus> statuses, Long afterId, Limit limit) {
+        List<Long> ids = findIdsByOrderStatusInAndIdGreaterThan(statuses, afterId, limit);
+        return ids.isEmpty() ? List.of() : OrderRow.toOrderDtos(findRowsByIdIn(ids));
+    }
 }
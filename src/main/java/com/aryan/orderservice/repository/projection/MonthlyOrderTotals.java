@@ -0,0 +1,11 @@
+package com.aryan.orderservice.repository.projection;
+
+import com.aryan.orderservice.enums.OrderStatus;
+
+/** Order count and summed amount for one status in one calendar month (month is 1-based) ***/
+public record MonthlyOrderTotals(OrderStatus status, Integer year, Integer month, Long orders, Long earnings) {
+
+    public boolean isFor(OrderStatus status, int year, int month) {
+        return this.status == status && this.year == year && this.month == month;
+    }
+}
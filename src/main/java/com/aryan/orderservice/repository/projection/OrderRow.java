@@ -0,0 +1,68 @@
+package com.aryan.orderservice.repository.projection;
+
+import com.aryan.orderservice.dto.CartItemsDto;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.enums.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One row of an order read: the order's columns and, through a left join, one of its items (item columns are
+ * null for an order without items). Rows are selected straight from the query, no entity is managed.
+ */
+public record OrderRow(Long id, String orderDescription, Date date, Long amount, String address, String payment,
+                       Long totalAmount, Long discount, OrderStatus orderStatus, Long userId, Long couponId,
+                       UUID trackingId, Long version, Long itemId, Long productId, String productName, Long price, Long quantity,
+                       Long itemUserId) {
+
+    /** Folds the rows of each order, in the order they come, into one OrderDto with its cart items ***/
+    public static List<OrderDto> toOrderDtos(List<OrderRow> rows) {
+        Map<Long, OrderDto> orders = new LinkedHashMap<>();
+        for (OrderRow row : rows) {
+            OrderDto order = orders.computeIfAbsent(row.id(), id -> row.toOrderDto());
+            if (row.itemId() != null) {
+                if (order.getCartItems() == null) {
+                    order.setCartItems(new ArrayList<>());
+                }
+                order.getCartItems().add(row.toCartItemsDto());
+            }
+        }
+        return new ArrayList<>(orders.values());
+    }
+
+    private OrderDto toOrderDto() {
+        return OrderDto.builder()
+                .id(id)
+                .orderDescription(orderDescription)
+                .date(date)
+                .amount(amount)
+                .address(address)
+                .payment(payment)
+                .totalAmount(totalAmount)
+                .discount(discount)
+                .orderStatus(orderStatus)
+                .userId(userId)
+                .couponId(couponId)
+                .trackingId(trackingId)
+                .version(version)
+                .build();
+    }
+
+    private CartItemsDto toCartItemsDto() {
+        return CartItemsDto.builder()
+                .id(itemId)
+                .orderId(id)
+                .productId(productId)
+                .productName(productName)
+                .price(price)
+                .quantity(quantity)
+                .userId(itemUserId)
+                .imageUrl(CartItemsDto.imageUrl(productId))
+                .build();
+    }
+}
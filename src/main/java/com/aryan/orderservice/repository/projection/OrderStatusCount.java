@@ -0,0 +1,7 @@
+package com.aryan.orderservice.repository.projection;
+
+import com.aryan.orderservice.enums.OrderStatus;
+
+/** Number of orders currently in a given status ***/
+public record OrderStatusCount(OrderStatus status, Long total) {
+}
@@ -0,0 +1,11 @@
+package com.aryan.orderservice.repository.projection;
+
+import com.aryan.orderservice.enums.OrderStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+/** The columns a status change needs: the current status, the analytics fields and the cache keys ***/
+public record OrderStatusRow(Long id, OrderStatus status, Date date, Long amount, Long userId, UUID trackingId,
+                             Long version) {
+}
@@ -5,11 +5,17 @@ import com.aryan.orderservice.dto.AnalyticsResponse;
 import com.aryan.orderservice.dto.OrderDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AdminOrderService {
     List<OrderDto> getAllPlacedOrders();
 
-    OrderDto changeOrderStatus(Long orderId, String status);
+    List<OrderDto> getPlacedOrdersPage(Long afterId, int limit);
+
+    void streamPlacedOrders(int pageSize, Consumer<List<OrderDto>> pageConsumer);
+
+    /** With a non-null {@code expectedVersion} the change only applies to that version of the order ***/
+    OrderDto changeOrderStatus(Long orderId, String status, Long expectedVersion);
 
     AnalyticsResponse calculateAnalytics();
 
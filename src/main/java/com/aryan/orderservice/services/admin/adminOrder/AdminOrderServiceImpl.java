@@ -1,133 +1,183 @@
 package com.aryan.orderservice.services.admin.adminOrder;
+import com.aryan.orderservice.cache.OrderDtoCache;
 import com.aryan.orderservice.dto.AnalyticsResponse;
 import com.aryan.orderservice.dto.OrderDto;
 import com.aryan.orderservice.dto.UserDto;
+import com.aryan.orderservice.enums.OrderEventType;
 import com.aryan.orderservice.enums.OrderStatus;
-import com.aryan.orderservice.feign.UserClient;
 import com.aryan.orderservice.model.Order;
 import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.repository.projection.MonthlyOrderTotals;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import com.aryan.orderservice.services.user.UserLookupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AdminOrderServiceImpl implements AdminOrderService {
+    private static final List<OrderStatus> PLACED_STATUSES = List.of(OrderStatus.Placed, OrderStatus.Shipped, OrderStatus.Delivered);
+
+    /** The statuses an admin can set one order to, by the name used in the path ***/
+    private static final Map<String, OrderStatus> ADMIN_STATUSES = Map.of(
+            "Shipped", OrderStatus.Shipped,
+            "Delivered", OrderStatus.Delivered);
+
     @Autowired
     private final OrderRepository orderRepository;
     @Autowired
-    private final UserClient    userClient;
+    private final UserLookupService userLookupService;
+    @Autowired
+    private final OrderAnalyticsRollup analyticsRollup;
+    @Autowired
+    private final OrderDtoCache orderDtoCache;
+    @Autowired
+    private final OrderOutbox orderOutbox;
 
     public List<OrderDto> getAllPlacedOrders() {
-        List<Order> orderList = orderRepository.findAllByOrderStatusIn(List.of(OrderStatus.Placed, OrderStatus.Shipped, OrderStatus.Delivered));
-        for (Order order : orderList) {
-            ResponseEntity<UserDto> userDto = userClient.getUserById(order.getUserId());
-            if (userDto.getStatusCode().is2xxSuccessful()) {
-                if (userDto.getBody() != null) {
-                    order.setUser(userDto.getBody());
-                }
+        return withUserNames(orderRepository.findDtosByOrderStatusIn(PLACED_STATUSES));
+    }
+
+    public List<OrderDto> getPlacedOrdersPage(Long afterId, int limit) {
+        return withUserNames(orderRepository.findDtoPageByOrderStatusIn(
+                PLACED_STATUSES, afterId != null ? afterId : 0L, Limit.of(limit)));
+    }
+
+    public void streamPlacedOrders(int pageSize, Consumer<List<OrderDto>> pageConsumer) {
+        Long afterId = null;
+        List<OrderDto> page;
+        do {
+            page = getPlacedOrdersPage(afterId, pageSize);
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+                afterId = page.get(page.size() - 1).getId();
             }
+        } while (page.size() == pageSize);
+    }
+
+    private List<OrderDto> withUserNames(List<OrderDto> orderDtos) {
+        if (orderDtos.isEmpty()) {
+            return orderDtos;
         }
-        return orderList.stream().map(Order::getOrderDto).collect(Collectors.toList());
+        Map<Long, UserDto> users = userLookupService.findUsersByIds(orderDtos.stream().map(OrderDto::getUserId).toList());
+        for (OrderDto orderDto : orderDtos) {
+            UserDto user = users.get(orderDto.getUserId());
+            if (user != null) {
+                orderDto.setUserName(user.getName());
+            }
+        }
+        return orderDtos;
     }
 
-    public OrderDto changeOrderStatus(Long orderId, String status) {
+    /**
+     * The UPDATE is conditioned on the version that was read, so a concurrent write fails with an
+     * OptimisticLockingFailureException. It is flushed before the outbox event is appended in the same transaction.
+     * An order already in the requested status is returned as is: no write, no event. Only "Shipped" and "Delivered"
+     * are accepted, anything else is an IllegalArgumentException.
+     */
+    @Transactional
+    public OrderDto changeOrderStatus(Long orderId, String status, Long expectedVersion) {
+        OrderStatus target = status != null ? ADMIN_STATUSES.get(status) : null;
+        if (target == null) {
+            throw new IllegalArgumentException("Unknown status " + status);
+        }
         Optional<Order> optionalOrder = orderRepository.findById(orderId);
         if (optionalOrder.isPresent()) {
             Order order = optionalOrder.get();
-
-            if (Objects.equals(status, "Shipped")) {
-                order.setOrderStatus(OrderStatus.Shipped);
-            } else if (Objects.equals(status, "Delivered")) {
-                order.setOrderStatus(OrderStatus.Delivered);
+            if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+                throw new OptimisticLockingFailureException("Order " + orderId + " is at version "
+                        + order.getVersion() + ", not " + expectedVersion);
+            }
+            if (order.getOrderStatus() == target) {
+                return order.getOrderDto();
             }
-            return orderRepository.save(order).getOrderDto();
+            OrderAnalyticsRollup.Snapshot before = OrderAnalyticsRollup.Snapshot.of(order);
+
+            order.setOrderStatus(target);
+            Order saved = orderRepository.save(order);
+            orderRepository.flush();
+            orderOutbox.append(OrderEventType.STATUS_CHANGED, saved);
+            analyticsRollup.recordChange(before, OrderAnalyticsRollup.Snapshot.of(saved));
+            orderDtoCache.evict(saved.getId(), saved.getTrackingId());
+            orderDtoCache.evictPendingByUserId(saved.getUserId());
+            return saved.getOrderDto();
         }
         return null;
     }
 
     public OrderDto getOrderByUserIdAndOrderStatus(Long userId, OrderStatus orderStatus) {
-        Optional<Order> optionalOrder = Optional.ofNullable(orderRepository.findByUserIdAndOrderStatus(userId, orderStatus));
-        if (optionalOrder.isPresent()) {
-            return optionalOrder.get().getOrderDto();
-        }
-        return null;
+        return orderRepository.findDtoByUserIdAndOrderStatus(userId, orderStatus).orElse(null);
     }
 
     public AnalyticsResponse calculateAnalytics() {
+        return analyticsRollup.currentAnalytics().orElseGet(this::aggregateAnalytics);
+    }
+
+    private AnalyticsResponse aggregateAnalytics() {
         LocalDate currentDate = LocalDate.now();
         LocalDate previousMonthDate = currentDate.minusMonths(1);
 
-        Long currentMonthOrders = getTotalOrdersForMonths(currentDate.getMonthValue(), currentDate.getYear());
-        Long previousMonthOrders = getTotalOrdersForMonths(previousMonthDate.getMonthValue(), previousMonthDate.getYear());
-
-        Long currentMonthEarning = getTotalEarningsForMonth(currentDate.getMonthValue(), currentDate.getYear());
-        Long previousMonthEarning = getTotalEarningsForMonth(previousMonthDate.getMonthValue(), previousMonthDate.getYear());
-
-        Long placed = orderRepository.countByOrderStatus(OrderStatus.Placed);
-        Long shipped = orderRepository.countByOrderStatus(OrderStatus.Shipped);
-        Long delivered = orderRepository.countByOrderStatus(OrderStatus.Delivered);
+        Map<OrderStatus, Long> countsByStatus = new EnumMap<>(OrderStatus.class);
+        orderRepository.countGroupedByOrderStatus(PLACED_STATUSES)
+                .forEach(count -> countsByStatus.put(count.status(), count.total()));
+
+        // Delivered totals for the previous and the current month in a single grouped query
+        List<MonthlyOrderTotals> monthlyTotals = orderRepository.sumGroupedByStatusAndMonth(
+                List.of(OrderStatus.Delivered),
+                startOfMonth(previousMonthDate.getMonthValue(), previousMonthDate.getYear()),
+                startOfMonth(currentDate.getMonthValue() + 1, currentDate.getYear()));
+        MonthlyOrderTotals current = deliveredTotalsFor(monthlyTotals, currentDate.getMonthValue(), currentDate.getYear());
+        MonthlyOrderTotals previous = deliveredTotalsFor(monthlyTotals, previousMonthDate.getMonthValue(), previousMonthDate.getYear());
+
+        return new AnalyticsResponse(
+                countsByStatus.getOrDefault(OrderStatus.Placed, 0L),
+                countsByStatus.getOrDefault(OrderStatus.Shipped, 0L),
+                countsByStatus.getOrDefault(OrderStatus.Delivered, 0L),
+                current.orders(), previous.orders(), current.earnings(), previous.earnings());
+    }
 
-        return new AnalyticsResponse(placed, shipped, delivered, currentMonthOrders, previousMonthOrders, currentMonthEarning, previousMonthEarning);
+    public Long getTotalOrdersForMonths(int month, int year) {
+        return deliveredTotalsForMonth(month, year).orders();
+    }
 
+    public Long getTotalEarningsForMonth(int month, int year) {
+        return deliveredTotalsForMonth(month, year).earnings();
     }
 
-    public Long getTotalOrdersForMonths(int month, int year) {
-        // set time on first day of month
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.YEAR, year);
-        calendar.set(Calendar.MONTH, month - 1);    // Indexing starts from 0 jan->0 to dec->11
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        Date startOfMonth = calendar.getTime();
-
-        // set time on last day of month
-        calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        Date endOfMonth = calendar.getTime();
-
-        List<Order> orders = orderRepository.findByDateBetweenAndOrderStatus(startOfMonth, endOfMonth, OrderStatus.Delivered);
-        return (long) orders.size();
+    private MonthlyOrderTotals deliveredTotalsForMonth(int month, int year) {
+        List<MonthlyOrderTotals> totals = orderRepository.sumGroupedByStatusAndMonth(
+                List.of(OrderStatus.Delivered), startOfMonth(month, year), startOfMonth(month + 1, year));
+        return deliveredTotalsFor(totals, month, year);
+    }
 
+    private static MonthlyOrderTotals deliveredTotalsFor(List<MonthlyOrderTotals> totals, int month, int year) {
+        return totals.stream()
+                .filter(total -> total.isFor(OrderStatus.Delivered, year, month))
+                .findFirst()
+                .map(total -> new MonthlyOrderTotals(total.status(), year, month, total.orders(),
+                        total.earnings() != null ? total.earnings() : 0L))
+                .orElseGet(() -> new MonthlyOrderTotals(OrderStatus.Delivered, year, month, 0L, 0L));
     }
 
-    public Long getTotalEarningsForMonth(int month, int year) {
+    /** Midnight on the first day of the month; a month of 13 rolls over to January of the next year ***/
+    static Date startOfMonth(int month, int year) {
         Calendar calendar = Calendar.getInstance();
+        calendar.clear();
         calendar.set(Calendar.YEAR, year);
         calendar.set(Calendar.MONTH, month - 1);    // Indexing starts from 0 jan->0 to dec->11
         calendar.set(Calendar.DAY_OF_MONTH, 1);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        Date startOfMonth = calendar.getTime();
-
-        // set time on last day of month
-        calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        Date endOfMonth = calendar.getTime();
-
-        List<Order> orders = orderRepository.findByDateBetweenAndOrderStatus(startOfMonth, endOfMonth, OrderStatus.Delivered);
-
-        Long sum = 0L;
-        for (Order order : orders) {
-            sum += order.getAmount();
-        }
-        return sum;
+        return calendar.getTime();
     }
 
 }
@@ -0,0 +1,159 @@
+package com.aryan.orderservice.services.admin.adminOrder;
+
+import com.aryan.orderservice.cache.OrderDtoCache;
+import com.aryan.orderservice.dto.BulkStatusChangeResult;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.repository.projection.OrderStatusRow;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves many orders to one status. The ids are handled in batches of {@code order.bulk.status-batch-size}, one
+ * transaction per batch: the current statuses of the batch are read with one query, the moves allowed by
+ * {@link OrderStatus#canTransitionTo} are applied by one UPDATE per current status, and nothing is loaded as an entity.
+ * Each change is appended to the outbox in the batch's transaction.
+ *
+ * <p>Each UPDATE is conditioned on the status that was read, so the analytics rollup receives exact before/after
+ * snapshots. When an UPDATE touches fewer rows than expected another writer got in between: the batch is rolled
+ * back and retried, and after {@value #MAX_ATTEMPTS} attempts its movable orders are reported as conflicted.
+ */
+@Service
+@Slf4j
+public class BulkOrderStatusService {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderAnalyticsRollup analyticsRollup;
+
+    private final OrderDtoCache orderDtoCache;
+
+    private final OrderOutbox orderOutbox;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public BulkOrderStatusService(OrderRepository orderRepository,
+                                  OrderAnalyticsRollup analyticsRollup,
+                                  OrderDtoCache orderDtoCache,
+                                  OrderOutbox orderOutbox,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${order.bulk.status-batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.analyticsRollup = analyticsRollup;
+        this.orderDtoCache = orderDtoCache;
+        this.orderOutbox = orderOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /** Every distinct id ends up in one list of the result, in request order ***/
+    public BulkStatusChangeResult changeOrderStatuses(Collection<Long> orderIds, OrderStatus target) {
+        BulkStatusChangeResult result = BulkStatusChangeResult.builder().status(target).build();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            changeBatch(ids.subList(from, Math.min(from + batchSize, ids.size())), target, result);
+        }
+        return result;
+    }
+
+    private void changeBatch(List<Long> ids, OrderStatus target, BulkStatusChangeResult result) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                BulkStatusChangeResult batch = transactionTemplate.execute(status -> applyBatch(ids, target));
+                result.getChanged().addAll(batch.getChanged());
+                result.getUnchanged().addAll(batch.getUnchanged());
+                result.getRejected().addAll(batch.getRejected());
+                result.getNotFound().addAll(batch.getNotFound());
+                return;
+            } catch (ConcurrentStatusChangeException e) {
+                log.debug("Orders changed concurrently during a bulk status change to {} (attempt {})", target, attempt);
+            }
+        }
+        log.warn("Bulk status change to {} gave up on a batch of {} orders after {} attempts", target, ids.size(), MAX_ATTEMPTS);
+        // the rows may have moved since: classify them again, without writing
+        BulkStatusChangeResult batch = classify(ids, orderRepository.findStatusRowsByIdIn(ids), target, new EnumMap<>(OrderStatus.class));
+        result.getUnchanged().addAll(batch.getUnchanged());
+        result.getRejected().addAll(batch.getRejected());
+        result.getNotFound().addAll(batch.getNotFound());
+        result.getConflicted().addAll(batch.getChanged());
+    }
+
+    private BulkStatusChangeResult applyBatch(List<Long> ids, OrderStatus target) {
+        Map<OrderStatus, List<OrderStatusRow>> movable = new EnumMap<>(OrderStatus.class);
+        BulkStatusChangeResult batch = classify(ids, orderRepository.findStatusRowsByIdIn(ids), target, movable);
+
+        for (Map.Entry<OrderStatus, List<OrderStatusRow>> group : movable.entrySet()) {
+            List<Long> groupIds = group.getValue().stream().map(OrderStatusRow::id).toList();
+            int updated = orderRepository.updateOrderStatus(groupIds, group.getKey(), target);
+            if (updated != groupIds.size()) {
+                throw new ConcurrentStatusChangeException();
+            }
+        }
+
+        List<OrderStatusRow> changed = movable.values().stream().flatMap(List::stream).toList();
+        if (changed.isEmpty()) {
+            return batch;
+        }
+        // the versions left by the UPDATEs, for the outbox events
+        Map<Long, Long> versions = new HashMap<>();
+        orderRepository.findStatusRowsByIdIn(changed.stream().map(OrderStatusRow::id).toList())
+                .forEach(row -> versions.put(row.id(), row.version()));
+        for (OrderStatusRow row : changed) {
+            orderOutbox.append(OrderEventType.STATUS_CHANGED, row.id(), row.userId(), target, versions.get(row.id()));
+            analyticsRollup.recordChange(new OrderAnalyticsRollup.Snapshot(row.status(), row.date(), row.amount()),
+                    new OrderAnalyticsRollup.Snapshot(target, row.date(), row.amount()));
+        }
+        // both evicts wait for the batch's commit themselves
+        for (OrderStatusRow row : changed) {
+            orderDtoCache.evict(row.id(), row.trackingId());
+        }
+        orderDtoCache.evictPendingByUserId(changed.stream()
+                .filter(row -> row.status() == OrderStatus.Pending)
+                .map(OrderStatusRow::userId)
+                .distinct()
+                .toArray(Long[]::new));
+        return batch;
+    }
+
+    /** Sorts the ids of a batch; the movable rows are grouped by current status and listed as changed ***/
+    private static BulkStatusChangeResult classify(List<Long> ids, List<OrderStatusRow> rows, OrderStatus target,
+                                                   Map<OrderStatus, List<OrderStatusRow>> movable) {
+        Map<Long, OrderStatusRow> rowsById = rows.stream().collect(Collectors.toMap(OrderStatusRow::id, Function.identity()));
+        BulkStatusChangeResult batch = BulkStatusChangeResult.builder().status(target).build();
+        for (Long id : ids) {
+            OrderStatusRow row = rowsById.get(id);
+            if (row == null) {
+                batch.getNotFound().add(id);
+            } else if (row.status() == target) {
+                batch.getUnchanged().add(id);
+            } else if (row.status() != null && row.status().canTransitionTo(target)) {
+                movable.computeIfAbsent(row.status(), status -> new ArrayList<>()).add(row);
+                batch.getChanged().add(id);
+            } else {
+                batch.getRejected().add(id);
+            }
+        }
+        return batch;
+    }
+
+    /** Rolls back the batch: one of its orders no longer had the status it was read with ***/
+    private static final class ConcurrentStatusChangeException extends RuntimeException {
+        ConcurrentStatusChangeException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.aryan.orderservice.services.admin.analytics;
+
+import com.aryan.orderservice.dto.AnalyticsResponse;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.repository.projection.MonthlyOrderTotals;
+import com.aryan.orderservice.utils.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory rollup of order counts per status and of counts/earnings per status and calendar month.
+ * Write paths report every change through {@link #recordChange}, so {@link #currentAnalytics} answers
+ * without touching the database. The rollup is rebuilt from the orders table at startup and then
+ * periodically, which also corrects any drift (writes made by other instances, failed commits, ...).
+ *
+ * <p>Changes committed while a rebuild is running are applied to the current rollup and also queued, then replayed
+ * onto the rebuilt one before it replaces the current one, so they are not lost by the swap. The queue opens right
+ * before the rebuild queries: only a change whose transaction committed just before them but whose after-commit
+ * callback ran after can still be counted twice, until the next reconciliation.
+ */
+@Component
+@Slf4j
+public class OrderAnalyticsRollup {
+
+    /** The order fields the rollup depends on, captured before and after a write ***/
+    public record Snapshot(OrderStatus status, Date date, Long amount) {
+        public static Snapshot of(Order order) {
+            return new Snapshot(order.getOrderStatus(), order.getDate(), order.getAmount());
+        }
+    }
+
+    private record Change(Snapshot before, Snapshot after) {
+    }
+
+    private record MonthKey(OrderStatus status, YearMonth month) {
+    }
+
+    private static final class Totals {
+        final LongAdder orders = new LongAdder();
+        final LongAdder earnings = new LongAdder();
+    }
+
+    private static final class State {
+        final Map<OrderStatus, LongAdder> countsByStatus = new ConcurrentHashMap<>();
+        final Map<MonthKey, Totals> monthly = new ConcurrentHashMap<>();
+
+        void apply(Change change) {
+            if (Objects.equals(change.before(), change.after())) {
+                return;
+            }
+            if (change.before() != null) {
+                add(change.before(), -1);
+            }
+            if (change.after() != null) {
+                add(change.after(), 1);
+            }
+        }
+
+        void add(Snapshot snapshot, int sign) {
+            if (snapshot.status() == null) {
+                return;
+            }
+            countsByStatus.computeIfAbsent(snapshot.status(), status -> new LongAdder()).add(sign);
+            if (snapshot.date() != null) {
+                Totals totals = monthly.computeIfAbsent(new MonthKey(snapshot.status(), toYearMonth(snapshot.date())), key -> new Totals());
+                totals.orders.add(sign);
+                totals.earnings.add(sign * (snapshot.amount() != null ? snapshot.amount() : 0L));
+            }
+        }
+
+        long count(OrderStatus status) {
+            LongAdder count = countsByStatus.get(status);
+            return count != null ? count.sum() : 0L;
+        }
+
+        Totals monthly(OrderStatus status, YearMonth month) {
+            return monthly.getOrDefault(new MonthKey(status, month), new Totals());
+        }
+    }
+
+    private final OrderRepository orderRepository;
+
+    private final int reconcileMonths;
+
+    /** Null until the first reconciliation has loaded the rollup from the database ***/
+    private volatile State state;
+
+    /** Changes applied while a rebuild is running, null otherwise ***/
+    private volatile Queue<Change> changesDuringRebuild;
+
+    /** Changes are applied under the read lock; the rebuild takes the write lock to open its queue and to swap ***/
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public OrderAnalyticsRollup(OrderRepository orderRepository,
+                                @Value("${order.analytics.reconcile-months:24}") int reconcileMonths) {
+        this.orderRepository = orderRepository;
+        this.reconcileMonths = reconcileMonths;
+    }
+
+    /**
+     * Applies a write to the rollup: {@code before} is null for a new order, {@code after} is null for a removed one.
+     * Inside a transaction the change is only applied once the transaction has committed.
+     */
+    public void recordChange(Snapshot before, Snapshot after) {
+        AfterCommit.run(() -> apply(new Change(before, after)));
+    }
+
+    private void apply(Change change) {
+        swapLock.readLock().lock();
+        try {
+            Queue<Change> queued = changesDuringRebuild;
+            if (queued != null) {
+                queued.add(change);
+            }
+            State current = state;
+            if (current != null) {
+                current.apply(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public Optional<AnalyticsResponse> currentAnalytics() {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        YearMonth thisMonth = YearMonth.from(LocalDate.now());
+        Totals currentMonth = current.monthly(OrderStatus.Delivered, thisMonth);
+        Totals previousMonth = current.monthly(OrderStatus.Delivered, thisMonth.minusMonths(1));
+
+        return Optional.of(new AnalyticsResponse(
+                current.count(OrderStatus.Placed),
+                current.count(OrderStatus.Shipped),
+                current.count(OrderStatus.Delivered),
+                currentMonth.orders.sum(),
+                previousMonth.orders.sum(),
+                currentMonth.earnings.sum(),
+                previousMonth.earnings.sum()));
+    }
+
+    @Scheduled(initialDelayString = "${order.analytics.reconcile-initial-delay:PT0S}",
+            fixedDelayString = "${order.analytics.reconcile-interval:PT10M}")
+    public synchronized void reconcile() {
+        withSwapLock(() -> changesDuringRebuild = new ConcurrentLinkedQueue<>());
+        try {
+            State rebuilt = rebuild();
+            withSwapLock(() -> swap(rebuilt));
+        } finally {
+            withSwapLock(() -> changesDuringRebuild = null);
+        }
+    }
+
+    private State rebuild() {
+        State rebuilt = new State();
+        orderRepository.countGroupedByOrderStatus(List.of(OrderStatus.values()))
+                .forEach(count -> rebuilt.countsByStatus.computeIfAbsent(count.status(), status -> new LongAdder()).add(count.total()));
+
+        YearMonth firstMonth = YearMonth.now().minusMonths(reconcileMonths - 1L);
+        YearMonth afterLastMonth = YearMonth.now().plusMonths(1);
+        List<MonthlyOrderTotals> monthlyTotals = orderRepository.sumGroupedByStatusAndMonth(
+                List.of(OrderStatus.values()), toDate(firstMonth), toDate(afterLastMonth));
+        for (MonthlyOrderTotals totals : monthlyTotals) {
+            Totals rolled = rebuilt.monthly.computeIfAbsent(
+                    new MonthKey(totals.status(), YearMonth.of(totals.year(), totals.month())), key -> new Totals());
+            rolled.orders.add(totals.orders());
+            rolled.earnings.add(totals.earnings() != null ? totals.earnings() : 0L);
+        }
+        return rebuilt;
+    }
+
+    private void swap(State rebuilt) {
+        Queue<Change> queued = changesDuringRebuild;
+        if (queued != null && !queued.isEmpty()) {
+            log.debug("Replaying {} changes committed during the analytics rebuild", queued.size());
+            queued.forEach(rebuilt::apply);
+        }
+        State previous = state;
+        state = rebuilt;
+        if (previous != null) {
+            for (OrderStatus status : OrderStatus.values()) {
+                long drift = rebuilt.count(status) - previous.count(status);
+                if (drift != 0) {
+                    log.info("Analytics rollup corrected by {} for status {}", drift, status);
+                }
+            }
+        }
+    }
+
+    private void withSwapLock(Runnable action) {
+        swapLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static YearMonth toYearMonth(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return YearMonth.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1);
+    }
+
+    private static Date toDate(YearMonth month) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(month.getYear(), month.getMonthValue() - 1, 1);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,152 @@
+package com.aryan.orderservice.services.order;
+
+import com.aryan.orderservice.cache.OrderDtoCache;
+import com.aryan.orderservice.dto.BulkOrderResult;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Creates orders in bulk. Requests are pulled one at a time from the iterator, so a streamed body is never held
+ * in memory as a whole, and written in chunks of {@code order.bulk.chunk-size} orders, one transaction per chunk.
+ * Within a chunk Hibernate sends the inserts in JDBC batches of {@code order.bulk.jdbc-batch-size}, the ids coming
+ * from the pooled orders_seq (one round trip per 50 orders).
+ *
+ * <p>An invalid request is rejected on its own. When the transaction of a chunk fails, every order of that chunk
+ * is reported as failed and the following chunks are still written. Reading stops at the first request that
+ * cannot be parsed.
+ */
+@Service
+@Slf4j
+public class BulkOrderService {
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    private final OrderAnalyticsRollup analyticsRollup;
+
+    private final OrderDtoCache orderDtoCache;
+
+    private final OrderOutbox orderOutbox;
+
+    private final int chunkSize;
+
+    private final int jdbcBatchSize;
+
+    public BulkOrderService(PlatformTransactionManager transactionManager,
+                            EntityManager entityManager,
+                            OrderAnalyticsRollup analyticsRollup,
+                            OrderDtoCache orderDtoCache,
+                            OrderOutbox orderOutbox,
+                            @Value("${order.bulk.chunk-size:500}") int chunkSize,
+                            @Value("${order.bulk.jdbc-batch-size:50}") int jdbcBatchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.analyticsRollup = analyticsRollup;
+        this.orderDtoCache = orderDtoCache;
+        this.orderOutbox = orderOutbox;
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /** One result per request read, in request order ***/
+    public List<BulkOrderResult> createOrders(Iterator<OrderRequest> requests) {
+        List<BulkOrderResult> results = new ArrayList<>();
+        List<Order> chunk = new ArrayList<>(chunkSize);
+        List<BulkOrderResult> chunkResults = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (true) {
+            OrderRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException e) {
+                results.add(result(index, BulkOrderResult.Status.REJECTED, "Unreadable request: " + e.getMessage()));
+                break;
+            }
+
+            String error = validate(request);
+            BulkOrderResult result = result(index++, error != null ? BulkOrderResult.Status.REJECTED : null, error);
+            results.add(result);
+            if (error == null) {
+                chunk.add(OrderServiceImpl.toOrder(request));
+                chunkResults.add(result);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, chunkResults);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, chunkResults);
+        }
+        return results;
+    }
+
+    private void write(List<Order> chunk, List<BulkOrderResult> chunkResults) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                chunk.forEach(entityManager::persist);
+                entityManager.flush();
+                // the chunk is written: nothing left to dirty-check at commit, the outbox events are batched in turn
+                entityManager.clear();
+                for (Order order : chunk) {
+                    orderOutbox.append(OrderEventType.CREATED, order);
+                    analyticsRollup.recordChange(null, OrderAnalyticsRollup.Snapshot.of(order));
+                }
+                orderDtoCache.evictPendingByUserId(chunk.stream().map(Order::getUserId).distinct().toArray(Long[]::new));
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.get(i).setStatus(BulkOrderResult.Status.CREATED);
+                chunkResults.get(i).setOrderId(chunk.get(i).getId());
+            }
+        } catch (PersistenceException | DataAccessException | TransactionException e) {
+            log.warn("Bulk chunk of {} orders rolled back", chunk.size(), e);
+            for (BulkOrderResult result : chunkResults) {
+                result.setStatus(BulkOrderResult.Status.FAILED);
+                result.setError(e.getMessage());
+            }
+        }
+        chunk.clear();
+        chunkResults.clear();
+    }
+
+    private static String validate(OrderRequest request) {
+        if (request == null) {
+            return "Empty request";
+        }
+        if (request.getOrderStatus() == null) {
+            return "orderStatus is required";
+        }
+        try {
+            OrderStatus.valueOf(request.getOrderStatus());
+            return null;
+        } catch (IllegalArgumentException e) {
+            return "Unknown orderStatus " + request.getOrderStatus();
+        }
+    }
+
+    private static BulkOrderResult result(int index, BulkOrderResult.Status status, String error) {
+        return BulkOrderResult.builder().index(index).status(status).error(error).build();
+    }
+}
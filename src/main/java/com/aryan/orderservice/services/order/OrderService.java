@@ -0,0 +1,24 @@
+package com.aryan.orderservice.services.order;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderPatch;
+import com.aryan.orderservice.dto.OrderRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderService {
+    OrderDto createOrder(OrderRequest orderRequest);
+
+    OrderDto getOrderById(Long id);
+
+    OrderDto updateOrder(OrderDto orderDto);
+
+    OrderDto patchOrder(Long id, OrderPatch patch, Long expectedVersion);
+
+    OrderDto getCartByUserId(Long userId);
+
+    List<OrderDto> getMyPlacedOrders(Long userId);
+
+    OrderDto getOrderByTrackingId(UUID trackingId);
+}
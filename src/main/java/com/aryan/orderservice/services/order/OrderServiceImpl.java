@@ -0,0 +1,175 @@
+package com.aryan.orderservice.services.order;
+
+import com.aryan.orderservice.cache.OrderDtoCache;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderPatch;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderServiceImpl implements OrderService {
+    private static final List<OrderStatus> PLACED_STATUSES = List.of(OrderStatus.Shipped, OrderStatus.Placed, OrderStatus.Delivered);
+
+    @Autowired
+    private final OrderRepository orderRepository;
+    @Autowired
+    private final OrderAnalyticsRollup analyticsRollup;
+    @Autowired
+    private final OrderDtoCache orderDtoCache;
+    @Autowired
+    private final OrderOutbox orderOutbox;
+
+    @Transactional
+    public OrderDto createOrder(OrderRequest orderRequest) {
+        Order saved = orderRepository.save(toOrder(orderRequest));
+        orderOutbox.append(OrderEventType.CREATED, saved);
+        analyticsRollup.recordChange(null, OrderAnalyticsRollup.Snapshot.of(saved));
+        orderDtoCache.evictPendingByUserId(saved.getUserId());
+        return saved.getOrderDto();
+    }
+
+    /** Also used by BulkOrderService, which validates the status first ***/
+    static Order toOrder(OrderRequest orderRequest) {
+        return Order.builder()
+                .userId(orderRequest.getUserId())
+                .amount(orderRequest.getAmount())
+                .totalAmount(orderRequest.getTotalAmount())
+                .discount(orderRequest.getDiscount())
+                .orderStatus(OrderStatus.valueOf(orderRequest.getOrderStatus()))
+                .build();
+    }
+
+    public OrderDto getOrderById(Long id) {
+        return orderDtoCache.getById(id, key -> orderRepository.findDtoById(key).orElse(null));
+    }
+
+    /**
+     * Loads the order and lets dirty checking write the changes: one SELECT and one UPDATE, with no extra merge.
+     * The UPDATE is conditioned on the version that was read, and when the DTO carries a version it must be the
+     * current one; either mismatch is an OptimisticLockingFailureException rather than a lost write. The changes
+     * are flushed before the DTO is built, so that it carries the new version. An update that leaves the order as it
+     * was writes nothing: no event, no rollup change, no eviction.
+     */
+    @Transactional
+    public OrderDto updateOrder(OrderDto orderDto) {
+        Optional<Order> optionalOrder = orderRepository.findById(orderDto.getId());
+        if (optionalOrder.isEmpty()) {
+            return null;
+        }
+        Order order = optionalOrder.get();
+        if (orderDto.getVersion() != null && !orderDto.getVersion().equals(order.getVersion())) {
+            throw new OptimisticLockingFailureException("Order " + order.getId() + " is at version "
+                    + order.getVersion() + ", not " + orderDto.getVersion());
+        }
+        OrderDto previous = order.getOrderDto();
+        OrderAnalyticsRollup.Snapshot before = OrderAnalyticsRollup.Snapshot.of(order);
+        UUID previousTrackingId = order.getTrackingId();
+        Long previousUserId = order.getUserId();
+
+        order.setAddress(orderDto.getAddress());
+        order.setOrderStatus(orderDto.getOrderStatus());
+        order.setTotalAmount(orderDto.getTotalAmount());
+        order.setDiscount(orderDto.getDiscount());
+        order.setOrderDescription(orderDto.getOrderDescription());
+        order.setUserId(orderDto.getUserId());
+        order.setAmount(orderDto.getAmount());
+        order.setCouponId(orderDto.getCouponId());
+        if (orderDto.getCartItems() != null) {
+            order.replaceItems(orderDto.getCartItems());
+        }
+        order.setTrackingId(orderDto.getTrackingId());
+        order.setDate(orderDto.getDate() != null ? order.getDate() : new Date());
+        log.debug("Order date is {}", order.getDate());
+        if (order.getOrderDto().equals(previous)) {
+            return previous;
+        }
+        orderRepository.flush();
+        orderOutbox.append(OrderEventType.UPDATED, order);
+
+        analyticsRollup.recordChange(before, OrderAnalyticsRollup.Snapshot.of(order));
+        orderDtoCache.evict(order.getId(), previousTrackingId, order.getTrackingId());
+        orderDtoCache.evictPendingByUserId(previousUserId, order.getUserId());
+        return order.getOrderDto();
+    }
+
+    /**
+     * Writes only the fields present in the patch. The order is loaded without its items and, the entity being
+     * {@code @DynamicUpdate}, the UPDATE only sets the changed columns and the version, conditioned on the version
+     * that was read. {@code expectedVersion}, when set, must be the current version. A patch with no field is an
+     * IllegalArgumentException; one that only repeats the current values writes nothing, like updateOrder.
+     */
+    @Transactional
+    public OrderDto patchOrder(Long id, OrderPatch patch, Long expectedVersion) {
+        if (new OrderPatch().equals(patch)) {
+            throw new IllegalArgumentException("The patch has no field to write");
+        }
+        Optional<Order> optionalOrder = orderRepository.findWithoutItemsById(id);
+        if (optionalOrder.isEmpty()) {
+            return null;
+        }
+        Order order = optionalOrder.get();
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new OptimisticLockingFailureException("Order " + id + " is at version "
+                    + order.getVersion() + ", not " + expectedVersion);
+        }
+        // reads the items as well: they are needed for the response either way
+        OrderDto previous = order.getOrderDto();
+        OrderAnalyticsRollup.Snapshot before = OrderAnalyticsRollup.Snapshot.of(order);
+        UUID previousTrackingId = order.getTrackingId();
+
+        Optional.ofNullable(patch.getOrderDescription()).ifPresent(order::setOrderDescription);
+        Optional.ofNullable(patch.getAmount()).ifPresent(order::setAmount);
+        Optional.ofNullable(patch.getAddress()).ifPresent(order::setAddress);
+        Optional.ofNullable(patch.getPayment()).ifPresent(order::setPayment);
+        Optional.ofNullable(patch.getOrderStatus()).ifPresent(order::setOrderStatus);
+        Optional.ofNullable(patch.getTotalAmount()).ifPresent(order::setTotalAmount);
+        Optional.ofNullable(patch.getDiscount()).ifPresent(order::setDiscount);
+        Optional.ofNullable(patch.getCouponId()).ifPresent(order::setCouponId);
+        Optional.ofNullable(patch.getTrackingId()).ifPresent(order::setTrackingId);
+        if (order.getOrderDto().equals(previous)) {
+            return previous;
+        }
+        orderRepository.flush();
+        orderOutbox.append(OrderEventType.UPDATED, order);
+
+        analyticsRollup.recordChange(before, OrderAnalyticsRollup.Snapshot.of(order));
+        orderDtoCache.evict(order.getId(), previousTrackingId, order.getTrackingId());
+        orderDtoCache.evictPendingByUserId(order.getUserId());
+        return order.getOrderDto();
+    }
+
+    public OrderDto getCartByUserId(Long userId) {
+        return orderDtoCache.getPendingByUserId(userId, key -> {
+            OrderDto order = orderRepository.findDtoByUserIdAndOrderStatus(key, OrderStatus.Pending).orElse(null);
+            // OrderDto.toString() includes the cart items: only built when debug logging is on
+            log.debug("Pending order for user {}: {}", key, order);
+            return order;
+        });
+    }
+
+    public List<OrderDto> getMyPlacedOrders(Long userId) {
+        return orderRepository.findDtosByUserIdAndOrderStatusIn(userId, PLACED_STATUSES);
+    }
+
+    public OrderDto getOrderByTrackingId(UUID trackingId) {
+        return orderDtoCache.getByTrackingId(trackingId, key -> orderRepository.findDtoByTrackingId(key).orElse(null));
+    }
+}
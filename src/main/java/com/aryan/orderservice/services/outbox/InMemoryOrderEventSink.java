@@ -0,0 +1,50 @@
+package com.aryan.orderservice.services.outbox;
+
+import com.aryan.orderservice.dto.OrderEventDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/** Hands events to in-process listeners and keeps the last {@code capacity} of them for inspection ***/
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final List<Consumer<OrderEventDto>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Deque<OrderEventDto> recent = new ArrayDeque<>();
+
+    private final int capacity;
+
+    public InMemoryOrderEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void subscribe(Consumer<OrderEventDto> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publish(List<OrderEventDto> events) {
+        for (OrderEventDto event : events) {
+            listeners.forEach(listener -> listener.accept(event));
+        }
+        synchronized (recent) {
+            for (OrderEventDto event : events) {
+                if (recent.size() == capacity) {
+                    recent.removeFirst();
+                }
+                recent.addLast(event);
+            }
+        }
+    }
+
+    /** The last events published, oldest first ***/
+    public List<OrderEventDto> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.aryan.orderservice.services.outbox;
+
+import com.aryan.orderservice.dto.OrderEventDto;
+
+import java.util.List;
+
+/**
+ * Where OrderOutboxRelay publishes order events. The in-memory sink is used unless another bean implements this
+ * interface (a Kafka producer keyed by order id, for instance).
+ */
+public interface OrderEventSink {
+
+    /**
+     * Publishes one batch; the events of an order come in version order. Throwing leaves the whole batch
+     * unpublished and it is sent again on the next relay run, so delivery is at least once.
+     */
+    void publish(List<OrderEventDto> events);
+}
@@ -0,0 +1,57 @@
+package com.aryan.orderservice.services.outbox;
+
+import com.aryan.orderservice.dto.OrderEventDto;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.model.OrderEvent;
+import com.aryan.orderservice.repository.OrderEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Appends order changes to the outbox table. Appending requires the transaction of the write itself, so the event
+ * is committed or rolled back together with the change; OrderOutboxRelay publishes it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final OrderEventRepository orderEventRepository;
+
+    /** Records the order as it is after the write: call it once the order has been flushed, so that it has its version ***/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderEventType eventType, Order order) {
+        append(eventType, order.getId(), order.getUserId(), order.getOrderStatus(), order.getVersion());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderEventType eventType, Long orderId, Long userId, OrderStatus orderStatus, Long orderVersion) {
+        orderEventRepository.save(OrderEvent.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .eventType(eventType)
+                .orderStatus(orderStatus)
+                .orderVersion(orderVersion)
+                .createdAt(new Date())
+                .build());
+    }
+
+    /**
+     * Keyset page of the published events after {@code afterPosition}, optionally restricted to one order. Positions
+     * are handed out by the relay in commit order, so a position past the cursor never appears later.
+     */
+    public List<OrderEventDto> replay(Long orderId, Long afterPosition, int limit) {
+        long after = afterPosition != null ? afterPosition : 0L;
+        List<OrderEvent> events = orderId != null
+                ? orderEventRepository.findByOrderIdAndPositionGreaterThanOrderByPositionAsc(orderId, after, Limit.of(limit))
+                : orderEventRepository.findByPositionGreaterThanOrderByPositionAsc(after, Limit.of(limit));
+        return events.stream().map(OrderEvent::getOrderEventDto).toList();
+    }
+}
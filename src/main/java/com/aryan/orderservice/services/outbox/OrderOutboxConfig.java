@@ -0,0 +1,16 @@
+package com.aryan.orderservice.services.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OrderOutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OrderEventSink.class)
+    public InMemoryOrderEventSink inMemoryOrderEventSink(@Value("${order.outbox.in-memory.capacity:10000}") int capacity) {
+        return new InMemoryOrderEventSink(capacity);
+    }
+}
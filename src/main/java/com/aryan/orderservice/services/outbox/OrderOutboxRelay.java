@@ -0,0 +1,127 @@
+package com.aryan.orderservice.services.outbox;
+
+import com.aryan.orderservice.model.OrderEvent;
+import com.aryan.orderservice.model.OrderEventRelayState;
+import com.aryan.orderservice.repository.OrderEventRelayStateRepository;
+import com.aryan.orderservice.repository.OrderEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Publishes the outbox to the OrderEventSink in batches of {@code order.outbox.batch-size}, oldest first. A batch
+ * also takes every other unpublished event of its orders and sends them ordered by order and version, so an order's
+ * events never overtake each other even when their ids (pooled per instance) do not follow commit order.
+ *
+ * <p>Each batch is one transaction holding the order_event_relay row ({@code FOR UPDATE SKIP LOCKED}): while one
+ * instance relays, the others skip their run, so no event is claimed twice (H2, without SKIP LOCKED, waits for the
+ * lock instead and fails the run on timeout). The batch numbers its events with the
+ * next replay positions, hands them to the sink and marks them published in that transaction. A failing sink rolls
+ * it back and the same events are sent again on the next run (at least once). Published events are kept
+ * {@code order.outbox.retention} for the replay endpoint.
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+
+    private static final Comparator<OrderEvent> ORDER_AND_VERSION = Comparator
+            .comparing(OrderEvent::getOrderId)
+            .thenComparing(OrderEvent::getOrderVersion, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(OrderEvent::getId);
+
+    private final OrderEventRepository orderEventRepository;
+
+    private final OrderEventRelayStateRepository relayStateRepository;
+
+    private final OrderEventSink sink;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Duration retention;
+
+    public OrderOutboxRelay(OrderEventRepository orderEventRepository,
+                            OrderEventRelayStateRepository relayStateRepository,
+                            OrderEventSink sink,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${order.outbox.batch-size:500}") int batchSize,
+                            @Value("${order.outbox.retention:P7D}") Duration retention) {
+        this.orderEventRepository = orderEventRepository;
+        this.relayStateRepository = relayStateRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${order.outbox.relay-interval:PT1S}",
+            fixedDelayString = "${order.outbox.relay-interval:PT1S}")
+    public void relay() {
+        try {
+            int started;
+            do {
+                started = relayBatch();
+            } while (started == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Order event relay stopped, the unpublished events are retried on the next run", e);
+        }
+    }
+
+    /** Returns the number of events the batch was started from, 0 when another relay holds the lock ***/
+    int relayBatch() {
+        return transactionTemplate.execute(status -> {
+            Optional<OrderEventRelayState> state = relayStateRepository.findLockedById(OrderEventRelayState.ID);
+            if (state.isPresent()) {
+                return relayBatch(state.get());
+            }
+            if (!relayStateRepository.existsById(OrderEventRelayState.ID)) {
+                // schemas created by Hibernate rather than by the migrations
+                relayStateRepository.save(OrderEventRelayState.builder().id(OrderEventRelayState.ID).build());
+            }
+            return 0;
+        });
+    }
+
+    private int relayBatch(OrderEventRelayState state) {
+        List<OrderEvent> oldest = orderEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (oldest.isEmpty()) {
+            return 0;
+        }
+        Map<Long, OrderEvent> events = new HashMap<>();
+        oldest.forEach(event -> events.put(event.getId(), event));
+        Set<Long> orderIds = new HashSet<>();
+        oldest.forEach(event -> orderIds.add(event.getOrderId()));
+        orderEventRepository.findByPublishedAtIsNullAndOrderIdIn(orderIds).forEach(event -> events.putIfAbsent(event.getId(), event));
+
+        List<OrderEvent> ordered = new ArrayList<>(events.values());
+        ordered.sort(ORDER_AND_VERSION);
+        // the events are managed: their position and publication date are flushed at commit
+        Date publishedAt = new Date();
+        long position = state.getLastPosition();
+        for (OrderEvent event : ordered) {
+            event.setPosition(++position);
+            event.setPublishedAt(publishedAt);
+        }
+        state.setLastPosition(position);
+        sink.publish(ordered.stream().map(OrderEvent::getOrderEventDto).toList());
+        log.debug("Published {} order events", ordered.size());
+        return oldest.size();
+    }
+
+    @Scheduled(initialDelayString = "${order.outbox.purge-interval:PT1H}",
+            fixedDelayString = "${order.outbox.purge-interval:PT1H}")
+    public void purge() {
+        int deleted = orderEventRepository.deletePublishedBefore(new Date(System.currentTimeMillis() - retention.toMillis()));
+        if (deleted > 0) {
+            log.info("Purged {} published order events older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.aryan.orderservice.services.product;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+
+/** A product image as served by order-service: the raw bytes, their media type and a strong ETag computed once ***/
+public record ProductImage(byte[] bytes, MediaType contentType, String eTag) {
+
+    public static ProductImage of(byte[] bytes) {
+        return new ProductImage(bytes, detectContentType(bytes), "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+    }
+
+    private static MediaType detectContentType(byte[] bytes) {
+        try {
+            String guessed = URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(bytes));
+            return guessed != null ? MediaType.parseMediaType(guessed) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (IOException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
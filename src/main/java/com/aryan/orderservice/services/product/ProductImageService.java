@@ -0,0 +1,46 @@
+package com.aryan.orderservice.services.product;
+
+import com.aryan.orderservice.cache.OrderCacheConfig;
+import com.aryan.orderservice.dto.ProductDto;
+import com.aryan.orderservice.feign.ProductFeign;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Product images for the cart items. product-service only hands them out base64-encoded inside the product,
+ * so each image is fetched and decoded once, then kept in the {@value OrderCacheConfig#PRODUCT_IMAGES} cache
+ * (bounded by total bytes). Products without an image are cached as such; when product-service is unavailable
+ * nothing is cached.
+ */
+@Service
+public class ProductImageService {
+
+    private final ProductFeign productFeign;
+
+    private final Cache images;
+
+    public ProductImageService(ProductFeign productFeign, @Qualifier("orderCacheManager") CacheManager orderCacheManager) {
+        this.productFeign = productFeign;
+        this.images = orderCacheManager.getCache(OrderCacheConfig.PRODUCT_IMAGES);
+    }
+
+    public Optional<ProductImage> findImage(Long productId) {
+        Cache.ValueWrapper cached = images.get(productId);
+        if (cached != null) {
+            return Optional.ofNullable((ProductImage) cached.get());
+        }
+        ProductDto product = productFeign.getProductById(productId);
+        if (product == null) {
+            return Optional.empty();
+        }
+        ProductImage image = product.getByteImg() != null && product.getByteImg().length > 0
+                ? ProductImage.of(product.getByteImg())
+                : null;
+        images.put(productId, image);
+        return Optional.ofNullable(image);
+    }
+}
@@ -0,0 +1,159 @@
+package com.aryan.orderservice.services.user;
+
+import com.aryan.orderservice.dto.UserDto;
+import com.aryan.orderservice.feign.UserClient;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves users for a set of ids with as few calls to user-service as possible:
+ * ids are deduplicated, the batch endpoint is tried first and, when it is not available,
+ * the per-id lookups are fanned out on a bounded pool. When user-service is unavailable the users
+ * are simply missing from the result.
+ */
+@Service
+@Slf4j
+public class UserLookupService {
+
+    private final UserClient userClient;
+
+    private final Executor executor;
+
+    /** Flipped off once user-service answers that it has no batch endpoint, so we stop paying for the attempt ***/
+    private volatile boolean batchSupported = true;
+
+    /**
+     * With {@code spring.threads.virtual.enabled=true} on Java 21+ the per-id lookups run on virtual threads,
+     * still capped at {@code concurrency} in-flight calls; otherwise they run on a fixed pool of platform threads.
+     */
+    @Autowired
+    public UserLookupService(UserClient userClient,
+                             @Value("${order.user-lookup.concurrency:8}") int concurrency,
+                             Environment environment) {
+        this(userClient, Threading.VIRTUAL.isActive(environment)
+                ? virtualThreadExecutor(concurrency)
+                : platformThreadPool(concurrency));
+    }
+
+    public UserLookupService(UserClient userClient, int concurrency) {
+        this(userClient, platformThreadPool(concurrency));
+    }
+
+    UserLookupService(UserClient userClient, Executor executor) {
+        this.userClient = userClient;
+        this.executor = executor;
+    }
+
+    private static ExecutorService platformThreadPool(int concurrency) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "user-lookup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static SimpleAsyncTaskExecutor virtualThreadExecutor(int concurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("user-lookup-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(Math.max(1, concurrency));
+        return executor;
+    }
+
+    public Map<Long, UserDto> findUsersByIds(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        if (batchSupported) {
+            Map<Long, UserDto> users = fetchBatch(ids);
+            if (users != null) {
+                return users;
+            }
+        }
+        return fetchEach(ids);
+    }
+
+    private Map<Long, UserDto> fetchBatch(Set<Long> ids) {
+        try {
+            ResponseEntity<List<UserDto>> response = userClient.getUsersByIds(ids);
+            if (response != null && response.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)) {
+                // user-service is down or shed by its circuit breaker/bulkhead: serve the orders without names
+                // rather than fanning out per-id calls that would fail the same way
+                return Collections.emptyMap();
+            }
+            if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                return null;
+            }
+            Map<Long, UserDto> users = new HashMap<>();
+            for (UserDto user : response.getBody()) {
+                if (user != null && user.getId() != null) {
+                    users.put(user.getId(), user);
+                }
+            }
+            return users;
+        } catch (FeignException.NotFound | FeignException.MethodNotAllowed e) {
+            log.info("user-service has no batch lookup endpoint, falling back to per-id lookups");
+            batchSupported = false;
+            return null;
+        } catch (FeignException e) {
+            log.warn("Batch user lookup failed with status {}, falling back to per-id lookups", e.status());
+            return null;
+        }
+    }
+
+    private Map<Long, UserDto> fetchEach(Set<Long> ids) {
+        Map<Long, CompletableFuture<UserDto>> pending = new LinkedHashMap<>();
+        for (Long id : ids) {
+            pending.put(id, CompletableFuture.supplyAsync(() -> fetchOne(id), executor));
+        }
+
+        Map<Long, UserDto> users = new HashMap<>();
+        pending.forEach((id, future) -> {
+            UserDto user = future.join();
+            if (user != null) {
+                users.put(id, user);
+            }
+        });
+        return users;
+    }
+
+    private UserDto fetchOne(Long id) {
+        try {
+            ResponseEntity<UserDto> response = userClient.getUserById(id);
+            if (response != null && response.getStatusCode().is2xxSuccessful()) {
+                return response.getBody();
+            }
+        } catch (FeignException e) {
+            log.warn("User lookup failed for userId: {} with status {}", id, e.status());
+        }
+        return null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        } else if (executor instanceof SimpleAsyncTaskExecutor taskExecutor) {
+            taskExecutor.close();
+        }
+    }
+}
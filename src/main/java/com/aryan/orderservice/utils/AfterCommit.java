@@ -0,0 +1,25 @@
+package com.aryan.orderservice.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Defers side effects on in-memory state until the surrounding transaction has committed ***/
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /** Runs the action once the current transaction commits, or right away when there is no transaction ***/
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
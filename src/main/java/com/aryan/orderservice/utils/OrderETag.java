@@ -0,0 +1,41 @@
+package com.aryan.orderservice.utils;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+
+/** The ETag of an order is its version, quoted: {@code "3"} ***/
+public final class OrderETag {
+
+    private OrderETag() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /** 200 carrying the ETag of the order, when the order has a version ***/
+    public static ResponseEntity.BodyBuilder ok(Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        return version != null ? response.eTag(of(version)) : response;
+    }
+
+    /**
+     * The version an If-Match header expects, or null when the header is absent or {@code *}. A header that names
+     * no version (a list, a foreign tag) can never match and is reported as a conflict, and so is a weak tag
+     * ({@code W/"3"}): If-Match only matches strong tags (RFC 9110, section 13.1.1).
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("If-Match " + ifMatch + " does not match the order");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Baseline: the orders table as Hibernate created it before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+CREATE TABLE IF NOT EXISTS orders (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    address           VARCHAR(255),
+    amount            BIGINT,
+    coupon_id         BIGINT,
+    date              DATETIME(6),
+    discount          BIGINT,
+    order_description VARCHAR(255),
+    order_status      TINYINT,
+    payment           VARCHAR(255),
+    total_amount      BIGINT,
+    tracking_id       BINARY(16),
+    user_id           BIGINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
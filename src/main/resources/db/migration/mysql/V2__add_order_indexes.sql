@@ -0,0 +1,8 @@
+-- findByUserIdAndOrderStatus / findByUserIdAndOrderStatusIn
+CREATE INDEX idx_orders_user_status ON orders (user_id, order_status);
+
+-- findByTrackingId (Pending orders have no tracking id yet, NULLs do not collide)
+CREATE UNIQUE INDEX ux_orders_tracking_id ON orders (tracking_id);
+
+-- findByDateBetweenAndOrderStatus, countByOrderStatus and the analytics aggregates
+CREATE INDEX idx_orders_status_date ON orders (order_status, date);
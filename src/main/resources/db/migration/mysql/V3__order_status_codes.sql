@@ -0,0 +1,22 @@
+-- Order status moves from the enum ordinal (0..3) to the stable codes of OrderStatus (10, 20, 30, 40).
+
+-- Hibernate created a "between 0 and 3" check on the ordinal column; drop it when present.
+SET @drop_status_check = (
+    SELECT IFNULL((
+        SELECT CONCAT('ALTER TABLE orders DROP CHECK `', tc.CONSTRAINT_NAME, '`')
+        FROM information_schema.TABLE_CONSTRAINTS tc
+        JOIN information_schema.CHECK_CONSTRAINTS cc
+          ON cc.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND cc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+        WHERE tc.TABLE_SCHEMA = DATABASE()
+          AND tc.TABLE_NAME = 'orders'
+          AND tc.CONSTRAINT_TYPE = 'CHECK'
+          AND cc.CHECK_CLAUSE LIKE '%order_status%'
+        LIMIT 1), 'DO 0'));
+PREPARE drop_status_check FROM @drop_status_check;
+EXECUTE drop_status_check;
+DEALLOCATE PREPARE drop_status_check;
+
+ALTER TABLE orders MODIFY order_status SMALLINT;
+
+-- Pending 0 -> 10, Placed 1 -> 20, Shipped 2 -> 30, Delivered 3 -> 40
+UPDATE orders SET order_status = (order_status + 1) * 10 WHERE order_status BETWEEN 0 AND 3;
@@ -0,0 +1,19 @@
+-- Cart items, previously only carried in requests (Order.cartItems was @Transient).
+CREATE TABLE order_items (
+    id           BIGINT       NOT NULL,
+    order_id     BIGINT       NOT NULL,
+    product_id   BIGINT,
+    product_name VARCHAR(255),
+    price        BIGINT,
+    quantity     BIGINT,
+    user_id      BIGINT,
+    PRIMARY KEY (id),
+    INDEX idx_order_items_order_id (order_id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id)
+) ENGINE = InnoDB;
+
+-- MySQL has no sequences: Hibernate emulates order_items_seq with a one-row table (pooled, allocation size 50)
+CREATE TABLE order_items_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO order_items_seq VALUES (1);
@@ -0,0 +1,8 @@
+-- Order ids move from AUTO_INCREMENT to a pooled sequence (allocation size 50) so that inserts can be batched.
+-- MySQL has no sequences: Hibernate emulates orders_seq with a one-row table. The stored value is the upper
+-- bound of the next pool, so max(id) + 50 hands out max(id) + 1 .. max(id) + 50 first.
+-- orders.id keeps its AUTO_INCREMENT attribute, Hibernate now always sends the id.
+CREATE TABLE orders_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO orders_seq SELECT COALESCE(MAX(id), 0) + 50 FROM orders;
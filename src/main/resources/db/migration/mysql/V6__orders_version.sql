@@ -0,0 +1,3 @@
+-- Optimistic locking: Order updates are conditioned on this column (WHERE id = ? AND version = ?)
+-- and it is exposed to clients as the ETag of the order. Existing rows start at version 0.
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
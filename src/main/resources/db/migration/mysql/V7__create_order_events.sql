@@ -0,0 +1,23 @@
+-- Transactional outbox: one row per order change, written in the same transaction as the change and
+-- published by OrderOutboxRelay. published_at stays NULL until the event has been handed to the sink.
+CREATE TABLE order_events (
+    id            BIGINT      NOT NULL,
+    order_id      BIGINT      NOT NULL,
+    user_id       BIGINT,
+    event_type    VARCHAR(32) NOT NULL,
+    order_status  SMALLINT,
+    order_version BIGINT,
+    created_at    DATETIME(6) NOT NULL,
+    published_at  DATETIME(6),
+    PRIMARY KEY (id),
+    -- the relay's scan for unpublished events and the purge of published ones
+    INDEX idx_order_events_published (published_at, id),
+    -- replay filtered on one order
+    INDEX idx_order_events_order (order_id, id)
+) ENGINE = InnoDB;
+
+-- MySQL has no sequences: Hibernate emulates order_events_seq with a one-row table (pooled, allocation size 50)
+CREATE TABLE order_events_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO order_events_seq VALUES (1);
@@ -0,0 +1,23 @@
+-- Replay cursor: OrderOutboxRelay numbers the events as it publishes them, in commit order, instead of the
+-- pooled ids, which only follow commit order within one instance.
+ALTER TABLE order_events
+    ADD COLUMN stream_position BIGINT,
+    ADD UNIQUE INDEX ux_order_events_position (stream_position),
+    ADD INDEX idx_order_events_order_position (order_id, stream_position),
+    DROP INDEX idx_order_events_order;
+
+-- events published so far keep their id order
+SET @position = 0;
+UPDATE order_events SET stream_position = (@position := @position + 1)
+WHERE published_at IS NOT NULL
+ORDER BY id;
+
+-- The row each relay batch locks (FOR UPDATE SKIP LOCKED), so that one instance relays at a time, and the last
+-- position handed out
+CREATE TABLE order_event_relay (
+    id            BIGINT NOT NULL,
+    last_position BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+INSERT INTO order_event_relay (id, last_position)
+SELECT 1, COALESCE(MAX(stream_position), 0) FROM order_events;
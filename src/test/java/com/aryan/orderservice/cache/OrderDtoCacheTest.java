@@ -0,0 +1,145 @@
+package com.aryan.orderservice.cache;
+
+import com.aryan.orderservice.dto.OrderDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderDtoCacheTest {
+
+    @Test
+    void testReadThrough_LoadsOnceAndEvicts() {
+        OrderDtoCache cache = new OrderDtoCache(new ConcurrentMapCache("ordersById"), new ConcurrentMapCache("ordersByTrackingId"),
+                new ConcurrentMapCache("pendingOrderByUserId"));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.getById(1L, id -> {
+                loads.incrementAndGet();
+                return OrderDto.builder().id(id).build();
+            });
+        }
+        assertEquals(1, loads.get());
+
+        // hors transaction l'éviction est immédiate
+        cache.evict(1L);
+        cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return OrderDto.builder().id(id).build();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvict_RemovesEveryTrackingId() {
+        ConcurrentMapCache byTrackingId = new ConcurrentMapCache("ordersByTrackingId");
+        OrderDtoCache cache = new OrderDtoCache(new ConcurrentMapCache("ordersById"), byTrackingId,
+                new ConcurrentMapCache("pendingOrderByUserId"));
+        UUID previous = UUID.randomUUID();
+        UUID current = UUID.randomUUID();
+        cache.getByTrackingId(previous, trackingId -> OrderDto.builder().id(1L).trackingId(trackingId).build());
+        cache.getByTrackingId(current, trackingId -> OrderDto.builder().id(1L).trackingId(trackingId).build());
+
+        cache.evict(1L, previous, current, null);
+
+        assertNull(byTrackingId.get(previous));
+        assertNull(byTrackingId.get(current));
+    }
+
+    @Test
+    void testPendingByUserId_CachesUsersWithoutPendingOrder() {
+        OrderDtoCache cache = new OrderDtoCache(new ConcurrentMapCache("ordersById"), new ConcurrentMapCache("ordersByTrackingId"),
+                new ConcurrentMapCache("pendingOrderByUserId"));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(cache.getPendingByUserId(7L, userId -> {
+                loads.incrementAndGet();
+                return null;
+            }));
+        }
+        assertEquals(1, loads.get());
+
+        // un nouveau panier doit être visible après l'éviction
+        cache.evictPendingByUserId(7L);
+        OrderDto pending = cache.getPendingByUserId(7L, userId -> OrderDto.builder().id(1L).userId(userId).build());
+        assertEquals(1L, pending.getId());
+    }
+
+    @Test
+    void testTieredCache_BackFillsLocalTierFromSharedTier() {
+        ConcurrentMapCache local = new ConcurrentMapCache("ordersById");
+        ConcurrentMapCache shared = new ConcurrentMapCache("ordersById");
+        shared.put(5L, OrderDto.builder().id(5L).build());
+        OrderDtoCache cache = new OrderDtoCache(new TieredCache(local, shared), new ConcurrentMapCache("ordersByTrackingId"),
+                new ConcurrentMapCache("pendingOrderByUserId"));
+
+        OrderDto result = cache.getById(5L, id -> fail("le niveau partagé doit répondre"));
+
+        assertEquals(5L, result.getId());
+        assertNotNull(local.get(5L));
+
+        cache.evict(5L);
+        assertNull(local.get(5L));
+        assertNull(shared.get(5L));
+    }
+
+    @Test
+    void testReadThrough_DoesNotPutBackAValueLoadedBeforeAConcurrentEvict() throws Exception {
+        OrderDtoCache cache = new OrderDtoCache(new ConcurrentMapCache("ordersById"), new ConcurrentMapCache("ordersByTrackingId"),
+                new ConcurrentMapCache("pendingOrderByUserId"));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        // le lecteur a lu la ligne avant le commit de l'écrivain, et la met en cache après son éviction
+        CompletableFuture<OrderDto> reader = CompletableFuture.supplyAsync(() -> cache.getById(1L, id -> {
+            loading.countDown();
+            await(evicted);
+            return OrderDto.builder().id(id).address("ancienne adresse").build();
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.evict(1L);
+        evicted.countDown();
+        assertEquals("ancienne adresse", reader.get(5, TimeUnit.SECONDS).getAddress());
+
+        OrderDto result = cache.getById(1L, id -> OrderDto.builder().id(id).address("nouvelle adresse").build());
+        assertEquals("nouvelle adresse", result.getAddress());
+    }
+
+    @Test
+    void testPendingByUserId_DoesNotHideACartCreatedDuringTheLoad() throws Exception {
+        OrderDtoCache cache = new OrderDtoCache(new ConcurrentMapCache("ordersById"), new ConcurrentMapCache("ordersByTrackingId"),
+                new ConcurrentMapCache("pendingOrderByUserId"));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        CompletableFuture<OrderDto> reader = CompletableFuture.supplyAsync(() -> cache.getPendingByUserId(7L, userId -> {
+            loading.countDown();
+            await(evicted);
+            return null;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.evictPendingByUserId(7L);
+        evicted.countDown();
+        assertNull(reader.get(5, TimeUnit.SECONDS));
+
+        OrderDto pending = cache.getPendingByUserId(7L, userId -> OrderDto.builder().id(1L).userId(userId).build());
+        assertNotNull(pending);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.aryan.orderservice.config;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void prometheusEndpoint_exposesEndpointRepositoryAndRowsMetrics() throws Exception {
+        orderRepository.save(Order.builder().userId(41L).orderStatus(OrderStatus.Placed).date(new Date()).build());
+        orderRepository.save(Order.builder().userId(41L).orderStatus(OrderStatus.Delivered).date(new Date()).build());
+
+        mockMvc.perform(get("/api/microservice/myOrders/{userId}", 41L)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer ecom-token"))
+                .andExpect(status().isOk());
+
+        // le scrape Prometheus demande le même jeton que les autres appels
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer ecom-token"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/api/microservice/myOrders/\\{userId\\}\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{.*method=\"findRowsByUserIdAndOrderStatusIn\"")
+                .containsPattern("order_repository_rows_bucket\\{.*method=\"findRowsByUserIdAndOrderStatusIn\".*le=\"10.0\".*\\} 1");
+    }
+}
@@ -1,7 +1,11 @@
 package com.aryan.orderservice.controller;
 
+import com.aryan.orderservice.dto.BulkStatusChangeRequest;
+import com.aryan.orderservice.dto.BulkStatusChangeResult;
 import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.enums.OrderStatus;
 import com.aryan.orderservice.services.admin.adminOrder.AdminOrderService;
+import com.aryan.orderservice.services.admin.adminOrder.BulkOrderStatusService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,10 +15,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +44,9 @@ class AdminOrderControllerTest {
     @MockitoBean
     private AdminOrderService adminOrderService;
 
+    @MockitoBean
+    private BulkOrderStatusService bulkOrderStatusService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -48,13 +62,64 @@ class AdminOrderControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetPlacedOrdersPage_ReturnsNextCursor() throws Exception {
+        OrderDto dto1 = OrderDto.builder().id(11L).build();
+        OrderDto dto2 = OrderDto.builder().id(12L).build();
+
+        when(adminOrderService.getPlacedOrdersPage(10L, 2)).thenReturn(List.of(dto1, dto2));
+
+        mockMvc.perform(get("/api/admin/placedOrders")
+                        .param("afterId", "10")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AdminOrderController.NEXT_CURSOR_HEADER, "12"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testGetPlacedOrdersPage_LastPageHasNoCursor() throws Exception {
+        when(adminOrderService.getPlacedOrdersPage(12L, 2)).thenReturn(List.of(OrderDto.builder().id(13L).build()));
+
+        mockMvc.perform(get("/api/admin/placedOrders")
+                        .param("afterId", "12")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(AdminOrderController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamPlacedOrders_WritesNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<OrderDto>> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(OrderDto.builder().id(1L).build(), OrderDto.builder().id(2L).build()));
+            consumer.accept(List.of(OrderDto.builder().id(3L).build()));
+            return null;
+        }).when(adminOrderService).streamPlacedOrders(eq(500), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/admin/placedOrders")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readValue(lines.get(2), OrderDto.class).getId()).isEqualTo(3L);
+    }
+
     @Test
     void testChangeOrderStatus_Success() throws Exception {
         Long orderId = 1L;
         String status = "Shipped";
         OrderDto dto = new OrderDto();
 
-        when(adminOrderService.changeOrderStatus(orderId, status)).thenReturn(dto);
+        when(adminOrderService.changeOrderStatus(orderId, status, null)).thenReturn(dto);
 
         mockMvc.perform(put("/api/admin/order/{orderId}/{status}", orderId, status)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -66,7 +131,7 @@ class AdminOrderControllerTest {
         Long orderId = 2L;
         String status = "InvalidStatus";
 
-        when(adminOrderService.changeOrderStatus(orderId, status)).thenReturn(null);
+        when(adminOrderService.changeOrderStatus(orderId, status, null)).thenReturn(null);
 
         mockMvc.perform(put("/api/admin/order/{orderId}/{status}", orderId, status)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -74,6 +139,41 @@ class AdminOrderControllerTest {
                 .andExpect(content().string("Something Went Wrong!!"));
     }
 
+    @Test
+    void testChangeOrderStatus_UnknownStatus_IsBadRequest() throws Exception {
+        when(adminOrderService.changeOrderStatus(3L, "Lost", null))
+                .thenThrow(new IllegalArgumentException("Unknown status Lost"));
+
+        mockMvc.perform(put("/api/admin/order/{orderId}/{status}", 3L, "Lost"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown status Lost"));
+    }
+
+    @Test
+    void testChangeOrderStatuses_ReturnsTheResult() throws Exception {
+        BulkStatusChangeResult result = BulkStatusChangeResult.builder().status(OrderStatus.Shipped).build();
+        result.getChanged().addAll(List.of(1L, 2L));
+        result.getNotFound().add(3L);
+        when(bulkOrderStatusService.changeOrderStatuses(List.of(1L, 2L, 3L), OrderStatus.Shipped)).thenReturn(result);
+
+        mockMvc.perform(put("/api/admin/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkStatusChangeRequest(List.of(1L, 2L, 3L), "Shipped"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(3));
+    }
+
+    @Test
+    void testChangeOrderStatuses_UnknownStatus() throws Exception {
+        mockMvc.perform(put("/api/admin/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkStatusChangeRequest(List.of(1L), "Lost"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown status Lost"));
+        Mockito.verifyNoInteractions(bulkOrderStatusService);
+    }
+
     @Test
     void testGetAnalytics_ReturnsOk() throws Exception {
         AnalyticsResponse analyticsResponse = new AnalyticsResponse(
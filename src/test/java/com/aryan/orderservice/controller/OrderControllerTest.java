@@ -1,29 +1,36 @@
 package com.aryan.orderservice.controller;
 
+import com.aryan.orderservice.dto.BulkOrderResult;
 import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderPatch;
 import com.aryan.orderservice.dto.OrderRequest;
 import com.aryan.orderservice.enums.OrderStatus;
-import com.aryan.orderservice.model.Order;
-import com.aryan.orderservice.repository.OrderRepository;
 import com.aryan.orderservice.services.admin.adminOrder.AdminOrderServiceImpl;
+import com.aryan.orderservice.services.order.BulkOrderService;
+import com.aryan.orderservice.services.order.OrderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc(addFilters = false)
@@ -34,11 +41,14 @@ class OrderControllerTest {
     private MockMvc mockMvc;
 
     @MockitoBean
-    private OrderRepository orderRepository;
+    private OrderService orderService;
 
     @MockitoBean
     private AdminOrderServiceImpl adminOrderService;
 
+    @MockitoBean
+    private BulkOrderService bulkOrderService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,35 +62,80 @@ class OrderControllerTest {
                 .orderStatus("Placed")
                 .build();
 
-        when(orderRepository.save(any(Order.class))).thenReturn(new Order());
+        when(orderService.createOrder(any(OrderRequest.class))).thenReturn(new OrderDto());
 
         mockMvc.perform(post("/api/microservice/orders")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
-        // Vérification que save() a bien été appelé
-        verify(orderRepository, atLeastOnce()).save(any(Order.class));
+        verify(orderService).createOrder(request);
+    }
+
+
+    @Test
+    void testCreateOrders_ReadsJsonArray() throws Exception {
+        List<OrderRequest> received = drainBulkRequests();
+        List<OrderRequest> requests = List.of(
+                OrderRequest.builder().userId(1L).orderStatus("Placed").build(),
+                OrderRequest.builder().userId(2L).orderStatus("Pending").build());
+
+        mockMvc.perform(post("/api/microservice/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+
+        assertEquals(requests, received);
+    }
+
+    @Test
+    void testCreateOrders_ReadsNdjsonStream() throws Exception {
+        List<OrderRequest> received = drainBulkRequests();
+        OrderRequest first = OrderRequest.builder().userId(1L).orderStatus("Placed").build();
+        OrderRequest second = OrderRequest.builder().userId(2L).orderStatus("Shipped").build();
+
+        mockMvc.perform(post("/api/microservice/orders/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0));
+
+        assertEquals(List.of(first, second), received);
     }
 
+    /** Le service simulé consomme les requêtes lues et répond CREATED pour chacune ***/
+    private List<OrderRequest> drainBulkRequests() {
+        List<OrderRequest> received = new ArrayList<>();
+        when(bulkOrderService.createOrders(any())).thenAnswer(invocation -> {
+            Iterator<OrderRequest> requests = invocation.getArgument(0);
+            List<BulkOrderResult> results = new ArrayList<>();
+            while (requests.hasNext()) {
+                received.add(requests.next());
+                results.add(BulkOrderResult.builder().index(results.size()).status(BulkOrderResult.Status.CREATED).build());
+            }
+            return results;
+        });
+        return received;
+    }
 
     @Test
     void testGetOrderById_ReturnsOrderDto() throws Exception {
         Long id = 1L;
 
-        Order order = mock(Order.class);
-        OrderDto dto = new OrderDto();
-        when(orderRepository.findById(id)).thenReturn(Optional.of(order));
-        when(order.getOrderDto()).thenReturn(dto);
+        when(orderService.getOrderById(id)).thenReturn(OrderDto.builder().id(id).version(3L).build());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/orders/{id}", id))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.id").value(1));
     }
 
     @Test
     void testGetOrderById_ReturnsNotFound() throws Exception {
         Long id = 2L;
-        when(orderRepository.findById(id)).thenReturn(Optional.empty());
+        when(orderService.getOrderById(id)).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/orders/{id}", id))
                 .andExpect(status().isNotFound());
@@ -126,27 +181,95 @@ class OrderControllerTest {
                 .trackingId(UUID.randomUUID())
                 .build();
 
-        Order existingOrder = new Order();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(existingOrder);
+        when(orderService.updateOrder(orderDto)).thenReturn(orderDto);
 
         mockMvc.perform(MockMvcRequestBuilders.put("/api/microservice/addorder/orders")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(orderDto)))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("123 Street"));
+
+        verify(orderService).updateOrder(orderDto);
+    }
+
+    @Test
+    void testAddOrder_IfMatchMakesTheUpdateConditional() throws Exception {
+        OrderDto orderDto = OrderDto.builder().id(1L).address("123 Street").build();
+        OrderDto conditional = OrderDto.builder().id(1L).address("123 Street").version(7L).build();
+        when(orderService.updateOrder(conditional)).thenReturn(OrderDto.builder().id(1L).version(8L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/microservice/addorder/orders")
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8\""));
+    }
+
+    @Test
+    void testAddOrder_ConflictReturns409() throws Exception {
+        OrderDto orderDto = OrderDto.builder().id(1L).version(2L).build();
+        when(orderService.updateOrder(orderDto)).thenThrow(new OptimisticLockingFailureException("Order 1 is at version 3, not 2"));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/microservice/addorder/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderDto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testPatchOrder_PassesOnlyTheSuppliedFields() throws Exception {
+        OrderPatch patch = OrderPatch.builder().address("123 Street").build();
+        when(orderService.patchOrder(1L, patch, 4L)).thenReturn(OrderDto.builder().id(1L).address("123 Street").version(5L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/microservice/orders/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"123 Street\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+                .andExpect(jsonPath("$.address").value("123 Street"));
+    }
+
+    @Test
+    void testPatchOrder_WeakIfMatchNeverMatches() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/microservice/orders/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"123 Street\"}"))
+                .andExpect(status().isConflict());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testPatchOrder_EmptyPatchIsBadRequest() throws Exception {
+        when(orderService.patchOrder(1L, new OrderPatch(), null))
+                .thenThrow(new IllegalArgumentException("The patch has no field to write"));
 
-        verify(orderRepository).save(any(Order.class));
-        verify(orderRepository).flush();
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/microservice/orders/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAddOrder_UnknownOrderReturnsNotFound() throws Exception {
+        OrderDto orderDto = OrderDto.builder().id(99L).build();
+
+        when(orderService.updateOrder(orderDto)).thenReturn(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/microservice/addorder/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderDto)))
+                .andExpect(status().isNotFound());
     }
 
     @Test
     void testGetCartByUserId_Found() throws Exception {
         Long userId = 1L;
-        Order order = mock(Order.class);
-        OrderDto dto = new OrderDto();
 
-        when(orderRepository.findByUserIdAndOrderStatus(userId, OrderStatus.Pending)).thenReturn(order);
-        when(order.getOrderDto()).thenReturn(dto);
+        when(orderService.getCartByUserId(userId)).thenReturn(new OrderDto());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/getmyplacedorder/orders/{userId}", userId))
                 .andExpect(status().isOk());
@@ -156,7 +279,7 @@ class OrderControllerTest {
     void testGetCartByUserId_NotFound() throws Exception {
         Long userId = 2L;
 
-        when(orderRepository.findByUserIdAndOrderStatus(userId, OrderStatus.Pending)).thenReturn(null);
+        when(orderService.getCartByUserId(userId)).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/getmyplacedorder/orders/{userId}", userId))
                 .andExpect(status().isNotFound());
@@ -167,28 +290,18 @@ class OrderControllerTest {
     void testGetMyPlacedOrders_Found() throws Exception {
         Long userId = 1L;
 
-        Order order1 = mock(Order.class);
-        Order order2 = mock(Order.class);
-
-        OrderDto dto1 = new OrderDto();
-        OrderDto dto2 = new OrderDto();
-
-        when(order1.getOrderDto()).thenReturn(dto1);
-        when(order2.getOrderDto()).thenReturn(dto2);
-
-        List<Order> orders = List.of(order1, order2);
-
-        when(orderRepository.findByUserIdAndOrderStatusIn(eq(userId), anyList())).thenReturn(orders);
+        when(orderService.getMyPlacedOrders(userId)).thenReturn(List.of(new OrderDto(), new OrderDto()));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/myOrders/{userId}", userId))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
     }
 
     @Test
     void testGetMyPlacedOrders_NotFound() throws Exception {
         Long userId = 2L;
 
-        when(orderRepository.findByUserIdAndOrderStatusIn(eq(userId), anyList())).thenReturn(List.of());
+        when(orderService.getMyPlacedOrders(userId)).thenReturn(List.of());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/myOrders/{userId}", userId))
                 .andExpect(status().isNotFound());
@@ -198,11 +311,7 @@ class OrderControllerTest {
     void testGetByTracking_Found() throws Exception {
         UUID trackingId = UUID.randomUUID();
 
-        Order order = mock(Order.class);
-        OrderDto dto = new OrderDto();
-
-        when(orderRepository.findByTrackingId(trackingId)).thenReturn(Optional.of(order));
-        when(order.getOrderDto()).thenReturn(dto);
+        when(orderService.getOrderByTrackingId(trackingId)).thenReturn(new OrderDto());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/getmyplacedorder/tracking/{trackingId}", trackingId))
                 .andExpect(status().isOk());
@@ -212,7 +321,7 @@ class OrderControllerTest {
     void testGetByTracking_NotFound() throws Exception {
         UUID trackingId = UUID.randomUUID();
 
-        when(orderRepository.findByTrackingId(trackingId)).thenReturn(Optional.empty());
+        when(orderService.getOrderByTrackingId(trackingId)).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/microservice/getmyplacedorder/tracking/{trackingId}", trackingId))
                 .andExpect(status().isNotFound());
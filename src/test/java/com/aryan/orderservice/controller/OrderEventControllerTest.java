@@ -0,0 +1,52 @@
+package com.aryan.orderservice.controller;
+
+import com.aryan.orderservice.dto.OrderEventDto;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(OrderEventController.class)
+class OrderEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderOutbox orderOutbox;
+
+    @Test
+    void replay_ReturnsNextCursorOnFullPage() throws Exception {
+        when(orderOutbox.replay(null, 10L, 2)).thenReturn(List.of(
+                OrderEventDto.builder().id(61L).orderId(1L).eventType(OrderEventType.CREATED).position(11L).build(),
+                OrderEventDto.builder().id(12L).orderId(1L).eventType(OrderEventType.UPDATED).position(12L).build()));
+
+        // le curseur est la position de publication, pas l'identifiant de l'événement
+        mockMvc.perform(get("/api/microservice/orders/events").param("after", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AdminOrderController.NEXT_CURSOR_HEADER, "12"))
+                .andExpect(jsonPath("$[1].eventType").value("UPDATED"));
+    }
+
+    @Test
+    void replay_FiltersOnOneOrder() throws Exception {
+        when(orderOutbox.replay(5L, null, 500)).thenReturn(List.of(
+                OrderEventDto.builder().id(3L).orderId(5L).eventType(OrderEventType.STATUS_CHANGED).build()));
+
+        mockMvc.perform(get("/api/microservice/orders/events").param("orderId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(AdminOrderController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].orderId").value(5));
+    }
+}
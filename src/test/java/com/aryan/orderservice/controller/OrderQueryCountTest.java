@@ -0,0 +1,180 @@
+package com.aryan.orderservice.controller;
+
+import com.aryan.orderservice.dto.CartItemsDto;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.filter.QueryCountFilter;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/** Regression guard on the number of SQL statements issued by the hottest order endpoints ***/
+@SpringBootTest(properties = {
+        "spring.profiles.active=test",
+        "order.query-count.enabled=true"
+})
+@AutoConfigureMockMvc
+class OrderQueryCountTest {
+
+    private static final String AUTHORIZATION = "Bearer ecom-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createOrder_insertsTheOrderAndItsEvent() throws Exception {
+        OrderRequest request = OrderRequest.builder()
+                .userId(1L)
+                .amount(100L)
+                .totalAmount(120L)
+                .discount(20L)
+                .orderStatus("Pending")
+                .build();
+
+        int queries = queryCount(post("/api/microservice/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        // insert de la commande et de son événement d'outbox, plus au plus deux appels par séquence
+        // (orders_seq, order_events_seq) quand leur pool est à initialiser ou épuisé
+        assertThat(queries).isBetween(2, 6);
+    }
+
+    @Test
+    void getOrderById_issuesOneSelect() throws Exception {
+        Order order = orderRepository.save(Order.builder().userId(2L).orderStatus(OrderStatus.Placed).date(new Date()).build());
+
+        int queries = queryCount(get("/api/microservice/orders/{id}", order.getId()));
+
+        assertThat(queries).isEqualTo(1);
+    }
+
+    @Test
+    void getOrderById_repeatedReadIsServedFromCache() throws Exception {
+        Order order = orderRepository.save(Order.builder().userId(4L).orderStatus(OrderStatus.Placed).date(new Date()).build());
+        queryCount(get("/api/microservice/orders/{id}", order.getId()));
+
+        int queries = queryCount(get("/api/microservice/orders/{id}", order.getId()));
+
+        assertThat(queries).isZero();
+    }
+
+    @Test
+    void addOrder_issuesOneSelectOneUpdateAndOneEventInsert() throws Exception {
+        Order order = orderRepository.save(Order.builder().userId(3L).orderStatus(OrderStatus.Pending).amount(10L).build());
+        OrderDto orderDto = OrderDto.builder()
+                .id(order.getId())
+                .userId(3L)
+                .address("1 Main Street")
+                .orderStatus(OrderStatus.Placed)
+                .amount(10L)
+                .trackingId(UUID.randomUUID())
+                .build();
+
+        int queries = queryCount(put("/api/microservice/addorder/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(orderDto)));
+
+        // plus au plus deux appels à order_events_seq
+        assertThat(queries).isBetween(3, 5);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getAddress()).isEqualTo("1 Main Street");
+    }
+
+    @Test
+    void addOrder_insertsCartItemsInOneBatch() throws Exception {
+        Order order = orderRepository.save(Order.builder().userId(5L).orderStatus(OrderStatus.Pending).amount(10L).build());
+        OrderDto orderDto = OrderDto.builder()
+                .id(order.getId())
+                .userId(5L)
+                .orderStatus(OrderStatus.Pending)
+                .amount(10L)
+                .cartItems(List.of(
+                        CartItemsDto.builder().productId(1L).quantity(1L).build(),
+                        CartItemsDto.builder().productId(2L).quantity(2L).build(),
+                        CartItemsDto.builder().productId(3L).quantity(3L).build()))
+                .build();
+
+        int queries = queryCount(put("/api/microservice/addorder/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(orderDto)));
+
+        // select (avec les articles), update, un seul insert batché, l'événement d'outbox, plus l'initialisation du
+        // pool de chaque séquence (deux appels au premier usage, aucun pour les 50 identifiants suivants)
+        assertThat(queries).isLessThanOrEqualTo(8);
+        assertThat(queryCount(get("/api/microservice/getmyplacedorder/orders/{userId}", 5L))).isEqualTo(1);
+    }
+
+    @Test
+    void createOrdersInBulk_batchesTheInserts() throws Exception {
+        List<OrderRequest> requests = new ArrayList<>();
+        for (long i = 0; i < 120; i++) {
+            requests.add(OrderRequest.builder().userId(1000L + i).amount(i).orderStatus("Placed").build());
+        }
+
+        int queries = queryCount(post("/api/microservice/orders/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)));
+
+        // trois inserts batchés (50 + 50 + 20) pour les commandes, trois pour leurs événements, et au plus un appel
+        // à chaque séquence par tranche de 50 identifiants, plus l'initialisation des pools
+        assertThat(queries).isLessThanOrEqualTo(14);
+        assertThat(orderRepository.findDtosByUserIdAndOrderStatusIn(1119L, List.of(OrderStatus.Placed))).hasSize(1);
+    }
+
+    @Test
+    void patchOrder_writesOnlyTheSuppliedFields() throws Exception {
+        Order order = orderRepository.save(Order.builder().userId(6L).orderStatus(OrderStatus.Placed).amount(10L)
+                .orderDescription("Six").build());
+
+        int queries = queryCount(patch("/api/microservice/orders/{id}", order.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"address\": \"6 Main Street\"}"));
+
+        // select sans les articles, update, l'événement d'outbox, puis les articles pour la réponse
+        // (plus au plus deux appels à order_events_seq)
+        assertThat(queries).isBetween(4, 6);
+        Order patched = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(patched.getAddress()).isEqualTo("6 Main Street");
+        assertThat(patched.getOrderDescription()).isEqualTo("Six");
+        assertThat(patched.getAmount()).isEqualTo(10L);
+        assertThat(patched.getVersion()).isEqualTo(order.getVersion() + 1);
+    }
+
+    private int queryCount(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(with(request)).andReturn();
+        assertThat(result.getResponse().getStatus()).isLessThan(300);
+        return (int) result.getRequest().getAttribute(QueryCountFilter.QUERY_COUNT_ATTRIBUTE);
+    }
+
+    private static RequestBuilder with(RequestBuilder request) {
+        return servletContext -> {
+            var mockRequest = request.buildRequest(servletContext);
+            mockRequest.addHeader(HttpHeaders.AUTHORIZATION, AUTHORIZATION);
+            return mockRequest;
+        };
+    }
+}
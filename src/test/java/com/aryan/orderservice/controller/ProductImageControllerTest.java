@@ -0,0 +1,63 @@
+package com.aryan.orderservice.controller;
+
+import com.aryan.orderservice.services.product.ProductImage;
+import com.aryan.orderservice.services.product.ProductImageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(ProductImageController.class)
+class ProductImageControllerTest {
+
+    // En-tête PNG : suffisant pour la détection du type
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductImageService productImageService;
+
+    @Test
+    void getProductImage_ReturnsBytesWithCachingHeaders() throws Exception {
+        ProductImage image = ProductImage.of(PNG);
+        when(productImageService.findImage(7L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/api/microservice/products/7/image"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(PNG))
+                .andExpect(header().string(HttpHeaders.ETAG, image.eTag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+    }
+
+    @Test
+    void getProductImage_MatchingETag_ReturnsNotModified() throws Exception {
+        ProductImage image = ProductImage.of(PNG);
+        when(productImageService.findImage(7L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/api/microservice/products/7/image").header(HttpHeaders.IF_NONE_MATCH, image.eTag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getProductImage_NoImage_ReturnsNotFound() throws Exception {
+        when(productImageService.findImage(8L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/microservice/products/8/image"))
+                .andExpect(status().isNotFound());
+    }
+}
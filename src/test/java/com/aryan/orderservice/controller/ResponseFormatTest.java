@@ -0,0 +1,91 @@
+package com.aryan.orderservice.controller;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Compression and content negotiation, checked against the embedded Tomcat rather than MockMvc ***/
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.profiles.active=test")
+class ResponseFormatTest {
+
+    private static final long USER_ID = 900L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        if (orderRepository.findDtosByUserIdAndOrderStatusIn(USER_ID, List.of(OrderStatus.Placed)).isEmpty()) {
+            orderRepository.saveAll(IntStream.range(0, 50)
+                    .mapToObj(i -> Order.builder().userId(USER_ID).orderStatus(OrderStatus.Placed).date(new Date())
+                            .address(i + " Main Street, Springfield").orderDescription("Order " + i).build())
+                    .toList());
+        }
+    }
+
+    @Test
+    void largeJsonList_IsGzipped() throws Exception {
+        HttpResponse<byte[]> response = send("application/json", "gzip");
+
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        OrderDto[] orders = objectMapper.readValue(new GZIPInputStream(new ByteArrayInputStream(response.body())), OrderDto[].class);
+        assertThat(orders).hasSize(50);
+    }
+
+    @Test
+    void acceptCbor_ReturnsCbor() throws Exception {
+        HttpResponse<byte[]> response = send("application/cbor", "identity");
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        OrderDto[] orders = new ObjectMapper(new CBORFactory()).readValue(response.body(), OrderDto[].class);
+        assertThat(orders).hasSize(50).allMatch(order -> order.getUserId() == USER_ID);
+    }
+
+    @Test
+    void anyAccept_StillDefaultsToJson() throws Exception {
+        HttpResponse<byte[]> response = send("*/*", "identity");
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/json");
+    }
+
+    private HttpResponse<byte[]> send(String accept, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/microservice/myOrders/" + USER_ID))
+                .header("Authorization", "Bearer ecom-token")
+                .header("Accept", accept)
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+}
@@ -0,0 +1,141 @@
+package com.aryan.orderservice.feign;
+
+import com.aryan.orderservice.config.FeignMetricsCapability;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.services.admin.adminOrder.AdminOrderService;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** user-service is replaced by a local HTTP stub whose latency exceeds the configured read timeout ***/
+@SpringBootTest(properties = {
+        "spring.profiles.active=test",
+        "spring.cloud.openfeign.client.config.user-service.read-timeout=200",
+        "resilience4j.circuitbreaker.instances.user-service.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.user-service.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.user-service.wait-duration-in-open-state=1m"
+})
+class UserClientResilienceTest {
+
+    private static final long STUB_LATENCY_MS = 1000;
+
+    private static final AtomicInteger stubCalls = new AtomicInteger();
+
+    private static final HttpServer userServiceStub = startStub();
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private AdminOrderService adminOrderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.openfeign.client.config.user-service.url",
+                () -> "http://localhost:" + userServiceStub.getAddress().getPort());
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/users", exchange -> {
+                stubCalls.incrementAndGet();
+                try {
+                    Thread.sleep(STUB_LATENCY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "{\"id\":1,\"name\":\"slow\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopStub() {
+        userServiceStub.stop(0);
+    }
+
+    @BeforeEach
+    void resetBreaker() {
+        circuitBreakerRegistry.circuitBreaker("user-service").reset();
+        stubCalls.set(0);
+    }
+
+    @Test
+    void slowUserService_placedOrdersAreServedWithoutUserNamesWithinTheTimeout() {
+        orderRepository.save(Order.builder().userId(1L).orderStatus(OrderStatus.Placed).date(new Date()).amount(10L).build());
+
+        long start = System.nanoTime();
+        List<OrderDto> orders = adminOrderService.getAllPlacedOrders();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(orders).isNotEmpty().allSatisfy(order -> assertThat(order.getUserName()).isNull());
+        // une seule tentative (batch) bornée par le read-timeout, pas d'appel par id
+        assertThat(elapsedMs).isLessThan(STUB_LATENCY_MS);
+        assertThat(stubCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedTimeouts_openTheCircuitAndStopCallingUserService() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(userClient.getUserById(1L).getStatusCode().value()).isEqualTo(503);
+        }
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("user-service");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        long start = System.nanoTime();
+        ResponseEntity<?> shortCircuited = userClient.getUserById(1L);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(shortCircuited.getStatusCode().value()).isEqualTo(503);
+        assertThat(elapsedMs).isLessThan(100);
+        assertThat(stubCalls.get()).isEqualTo(4);
+        assertThat(meterRegistry.find("resilience4j.circuitbreaker.state").tag("name", "user-service").gauges())
+                .isNotEmpty();
+        assertThat(meterRegistry.find(FeignMetricsCapability.METRIC)
+                .tags("client", "user-service", "method", "getUserById", "outcome", "TIMEOUT").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isEqualTo(4));
+    }
+}
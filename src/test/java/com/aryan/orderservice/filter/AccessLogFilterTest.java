@@ -0,0 +1,98 @@
+package com.aryan.orderservice.filter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessLogFilterTest {
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void logsRequestWithoutCredentials() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/microservice/orders/1");
+        request.setQueryString("access_token=secret-value&page=2");
+        request.addHeader("Authorization", "Bearer ecom-token");
+        request.addHeader("X-User", "alice");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new AccessLogFilter(1.0, Duration.ofSeconds(1)).doFilter(request, response, new MockFilterChain());
+
+        assertThat(appender.list).hasSize(1);
+        Map<String, String> fields = fields(appender.list.get(0));
+        assertThat(fields)
+                .containsEntry("method", "GET")
+                .containsEntry("uri", "/api/microservice/orders/1?access_token=***&page=2")
+                .containsEntry("status", "200")
+                .containsEntry("user", "alice")
+                .containsEntry("auth", "Bearer")
+                .containsKey("duration_ms");
+        assertThat(fields.toString()).doesNotContain("ecom-token", "secret-value");
+    }
+
+    @Test
+    void unsampledRequestIsSkippedButServerErrorIsAlwaysLogged() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/ok"), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(appender.list).isEmpty();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/ko"), response,
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(503));
+        assertThat(appender.list).hasSize(1);
+        assertThat(fields(appender.list.get(0))).containsEntry("status", "503");
+    }
+
+    @Test
+    void failedRequestIsLoggedAsServerError() {
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/boom"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new IllegalStateException("boom");
+                })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(fields(appender.list.get(0)))
+                .containsEntry("status", "500")
+                .containsEntry("error", "IllegalStateException");
+    }
+
+    @Test
+    void authScheme_keepsOnlyTheScheme() {
+        assertThat(AccessLogFilter.authScheme(null)).isEqualTo("none");
+        assertThat(AccessLogFilter.authScheme("Basic dXNlcjpwYXNz")).isEqualTo("Basic");
+        assertThat(AccessLogFilter.authScheme("raw-token")).isEqualTo("***");
+    }
+
+    private static Map<String, String> fields(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream()
+                .collect(Collectors.toMap(pair -> pair.key, pair -> String.valueOf(pair.value)));
+    }
+}
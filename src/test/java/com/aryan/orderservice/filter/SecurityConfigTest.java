@@ -0,0 +1,62 @@
+package com.aryan.orderservice.filter;
+
+import com.aryan.orderservice.controller.AdminOrderController;
+import com.aryan.orderservice.dto.BulkStatusChangeResult;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.services.admin.adminOrder.AdminOrderService;
+import com.aryan.orderservice.services.admin.adminOrder.BulkOrderStatusService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Les filtres de sécurité sont actifs ici, contrairement aux tests des contrôleurs ***/
+@WebMvcTest(controllers = AdminOrderController.class, properties = "ecom.token=ecom-token")
+@Import(SecurityConfig.class)
+class SecurityConfigTest {
+
+    private static final String BULK_STATUS_CHANGE = "{\"orderIds\":[1,2],\"status\":\"Shipped\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AdminOrderService adminOrderService;
+
+    @MockitoBean
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @Test
+    void bulkStatusChange_WithoutToken_IsForbidden() throws Exception {
+        mockMvc.perform(put("/api/admin/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BULK_STATUS_CHANGE))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bulkOrderStatusService);
+    }
+
+    @Test
+    void bulkStatusChange_WithToken_ReachesTheController() throws Exception {
+        when(bulkOrderStatusService.changeOrderStatuses(anyCollection(), eq(OrderStatus.Shipped)))
+                .thenReturn(BulkStatusChangeResult.builder().status(OrderStatus.Shipped).build());
+
+        mockMvc.perform(put("/api/admin/orders/status")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer ecom-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BULK_STATUS_CHANGE))
+                .andExpect(status().isOk());
+
+        verify(bulkOrderStatusService).changeOrderStatuses(anyCollection(), eq(OrderStatus.Shipped));
+    }
+}
@@ -0,0 +1,45 @@
+package com.aryan.orderservice.loadtest;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The load-test scenarios derive ids from the seeding rules, this checks those rules hold ***/
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "order.loadtest.seed.orders=1000",
+        "order.loadtest.seed.users=100",
+        "order.loadtest.seed.batch-size=300"
+})
+@ActiveProfiles("loadtest")
+@Import(LoadTestDataSeeder.class)
+class LoadTestDataSeederTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void seed_followsTheDocumentedIdScheme() {
+        assertThat(orderRepository.count()).isEqualTo(1000);
+
+        OrderDto last = orderRepository.findDtoByTrackingId(new UUID(0L, 1000L)).orElseThrow();
+        assertThat(last.getId()).isEqualTo(1000L);
+        assertThat(last.getUserId()).isEqualTo(100L);
+
+        // un utilisateur sur cinq a un panier en attente
+        assertThat(orderRepository.findDtoByUserIdAndOrderStatus(5L, OrderStatus.Pending)).isPresent();
+        assertThat(orderRepository.findDtoByUserIdAndOrderStatus(6L, OrderStatus.Pending)).isEmpty();
+        assertThat(orderRepository.findDtosByUserIdAndOrderStatusIn(6L,
+                List.of(OrderStatus.Placed, OrderStatus.Shipped, OrderStatus.Delivered))).hasSize(10);
+    }
+}
@@ -0,0 +1,103 @@
+package com.aryan.orderservice.repository;
+
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the access paths behind the OrderRepository finders go through the indexes declared on Order.
+ * Runs on H2 in MySQL mode; the EXPLAIN output of both H2 (plan text) and MySQL (key column) names the index used.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderIndexPlanTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        List<OrderStatus> statuses = List.of(OrderStatus.values());
+        orderRepository.saveAll(IntStream.range(0, 200)
+                .mapToObj(i -> Order.builder()
+                        .userId((long) (i % 20))
+                        .orderStatus(statuses.get(i % statuses.size()))
+                        .date(new Date())
+                        .trackingId(UUID.randomUUID())
+                        .build())
+                .toList());
+        orderRepository.flush();
+    }
+
+    @Test
+    void findDtoByUserIdAndOrderStatus_usesUserStatusIndex() {
+        assertThat(plan("select * from orders where user_id = ? and order_status = ?", 3L, OrderStatus.Placed.getCode()))
+                .contains("idx_orders_user_status");
+    }
+
+    @Test
+    void findRowsByUserIdAndOrderStatusIn_usesUserStatusIndex() {
+        assertThat(plan("select * from orders where user_id = ? and order_status in (?, ?, ?)", 3L,
+                OrderStatus.Placed.getCode(), OrderStatus.Shipped.getCode(), OrderStatus.Delivered.getCode()))
+                .contains("idx_orders_user_status");
+    }
+
+    @Test
+    void findRowsByTrackingId_usesUniqueTrackingIndex() {
+        assertThat(plan("select * from orders where tracking_id = ?", UUID.randomUUID()))
+                .contains("ux_orders_tracking_id");
+    }
+
+    @Test
+    void sumGroupedByStatusAndMonth_usesStatusDateIndex() {
+        Date now = new Date();
+        assertThat(plan("select order_status, count(*), sum(amount) from orders where order_status in (?) and date >= ? and date < ?"
+                        + " group by order_status, year(date), month(date)",
+                OrderStatus.Delivered.getCode(), new Date(now.getTime() - 86_400_000L), now))
+                .contains("idx_orders_status_date");
+    }
+
+    @Test
+    void findRowsByOrderStatusIn_usesStatusDateIndex() {
+        assertThat(plan("select * from orders where order_status in (?, ?, ?)",
+                OrderStatus.Placed.getCode(), OrderStatus.Shipped.getCode(), OrderStatus.Delivered.getCode()))
+                .contains("idx_orders_status_date");
+    }
+
+    @Test
+    void countGroupedByOrderStatus_usesStatusDateIndex() {
+        assertThat(plan("select order_status, count(*) from orders where order_status in (?, ?, ?) group by order_status",
+                OrderStatus.Placed.getCode(), OrderStatus.Shipped.getCode(), OrderStatus.Delivered.getCode()))
+                .contains("idx_orders_status_date");
+    }
+
+    private String plan(String sql, Object... parameters) {
+        Query query = entityManager.createNativeQuery("EXPLAIN " + sql);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        List<?> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> row instanceof Object[] columns ? Arrays.toString(columns) : String.valueOf(row))
+                .collect(Collectors.joining("\n"))
+                .toLowerCase(Locale.ROOT);
+    }
+}
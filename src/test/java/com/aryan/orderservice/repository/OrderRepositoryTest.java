@@ -1,10 +1,16 @@
 package com.aryan.orderservice.repository;
 
+import com.aryan.orderservice.dto.CartItemsDto;
+import com.aryan.orderservice.dto.OrderDto;
 import com.aryan.orderservice.enums.OrderStatus;
 import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.projection.MonthlyOrderTotals;
+import com.aryan.orderservice.repository.projection.OrderStatusCount;
 import org.junit.jupiter.api.Test;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,15 +20,19 @@ import java.util.List;
 import java.util.Calendar;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.flyway.enabled=false")
 class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
-    void testFindByUserIdAndOrderStatus() {
+    void testFindDtoByUserIdAndOrderStatus() {
         Order order = Order.builder()
                 .userId(123L)
                 .amount(100L)
@@ -32,21 +42,20 @@ class OrderRepositoryTest {
 
         orderRepository.save(order);
 
-        Order found = orderRepository.findByUserIdAndOrderStatus(123L, OrderStatus.Placed);
+        OrderDto found = orderRepository.findDtoByUserIdAndOrderStatus(123L, OrderStatus.Placed).orElseThrow();
 
-        assertThat(found).isNotNull();
         assertThat(found.getUserId()).isEqualTo(123L);
         assertThat(found.getOrderStatus()).isEqualTo(OrderStatus.Placed);
     }
 
     @Test
-    void testFindByUserIdAndOrderStatus_NotFound() {
-        Order result = orderRepository.findByUserIdAndOrderStatus(999L, OrderStatus.Delivered);
-        assertThat(result).isNull();
+    void testFindDtoByUserIdAndOrderStatus_NotFound() {
+        Optional<OrderDto> result = orderRepository.findDtoByUserIdAndOrderStatus(999L, OrderStatus.Delivered);
+        assertThat(result).isEmpty();
     }
 
     @Test
-    void testFindByTrackingId_Found() {
+    void testFindDtoByTrackingId_Found() {
         UUID trackingId = UUID.randomUUID();
 
         Order order = Order.builder()
@@ -58,53 +67,181 @@ class OrderRepositoryTest {
 
         orderRepository.save(order);
 
-        Optional<Order> result = orderRepository.findByTrackingId(trackingId);
+        Optional<OrderDto> result = orderRepository.findDtoByTrackingId(trackingId);
 
         assertThat(result).isPresent();
         assertThat(result.get().getTrackingId()).isEqualTo(trackingId);
     }
 
     @Test
-    void testFindByTrackingId_NotFound() {
-        Optional<Order> result = orderRepository.findByTrackingId(UUID.randomUUID());
+    void testFindDtoByTrackingId_NotFound() {
+        Optional<OrderDto> result = orderRepository.findDtoByTrackingId(UUID.randomUUID());
         assertThat(result).isEmpty();
     }
 
     @Test
-    void testFindByDateBetweenAndOrderStatus() {
-        // Début et fin du mois courant
+    void testFindDtoPageByOrderStatusIn_PagesByKeyset() {
+        List<Order> saved = orderRepository.saveAll(List.of(
+                Order.builder().userId(1L).orderStatus(OrderStatus.Placed).date(new Date()).build(),
+                Order.builder().userId(1L).orderStatus(OrderStatus.Pending).date(new Date()).build(),
+                Order.builder().userId(2L).orderStatus(OrderStatus.Shipped).date(new Date()).build(),
+                Order.builder().userId(3L).orderStatus(OrderStatus.Delivered).date(new Date()).build()));
+        List<OrderStatus> placed = List.of(OrderStatus.Placed, OrderStatus.Shipped, OrderStatus.Delivered);
+
+        List<OrderDto> firstPage = orderRepository.findDtoPageByOrderStatusIn(placed, 0L, Limit.of(2));
+        List<OrderDto> secondPage = orderRepository.findDtoPageByOrderStatusIn(placed, firstPage.get(1).getId(), Limit.of(2));
+
+        assertThat(firstPage).extracting(OrderDto::getId)
+                .containsExactly(saved.get(0).getId(), saved.get(2).getId());
+        assertThat(secondPage).extracting(OrderDto::getId)
+                .containsExactly(saved.get(3).getId());
+    }
+
+    @Test
+    void testAggregates_CountAndSumByStatusAndMonth() {
         Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.DAY_OF_MONTH, 1);
-        Date start = cal.getTime();
+        cal.clear();
+        cal.set(2024, Calendar.MARCH, 15);
+        Date march = cal.getTime();
+        cal.set(2024, Calendar.APRIL, 2);
+        Date april = cal.getTime();
+
+        orderRepository.saveAll(List.of(
+                Order.builder().userId(1L).amount(100L).orderStatus(OrderStatus.Delivered).date(march).build(),
+                Order.builder().userId(2L).amount(50L).orderStatus(OrderStatus.Delivered).date(march).build(),
+                Order.builder().userId(3L).amount(70L).orderStatus(OrderStatus.Delivered).date(april).build(),
+                Order.builder().userId(4L).amount(10L).orderStatus(OrderStatus.Shipped).date(april).build()));
+
+        cal.set(2024, Calendar.MARCH, 1);
+        Date from = cal.getTime();
+        cal.set(2024, Calendar.MAY, 1);
+        Date to = cal.getTime();
+        List<MonthlyOrderTotals> totals = orderRepository.sumGroupedByStatusAndMonth(List.of(OrderStatus.Delivered), from, to);
+
+        assertThat(totals).containsExactlyInAnyOrder(
+                new MonthlyOrderTotals(OrderStatus.Delivered, 2024, 3, 2L, 150L),
+                new MonthlyOrderTotals(OrderStatus.Delivered, 2024, 4, 1L, 70L));
+
+        List<OrderStatusCount> counts = orderRepository.countGroupedByOrderStatus(List.of(OrderStatus.Shipped, OrderStatus.Delivered));
+        assertThat(counts).containsExactlyInAnyOrder(
+                new OrderStatusCount(OrderStatus.Shipped, 1L),
+                new OrderStatusCount(OrderStatus.Delivered, 3L));
+    }
 
-        cal.set(Calendar.DAY_OF_MONTH, cal.getActualMaximum(Calendar.DAY_OF_MONTH));
-        Date end = cal.getTime();
+    @Test
+    void testOrderStatus_IsStoredAsStableCode() {
+        Order order = orderRepository.saveAndFlush(Order.builder()
+                .userId(5L)
+                .orderStatus(OrderStatus.Shipped)
+                .date(new Date())
+                .build());
 
-        Order order1 = Order.builder()
-                .userId(1L)
-                .orderStatus(OrderStatus.Delivered)
-                .date(new Date()) // aujourd'hui
-                .build();
+        Object stored = entityManager.createNativeQuery("select order_status from orders where id = ?1")
+                .setParameter(1, order.getId())
+                .getSingleResult();
 
-        Order order2 = Order.builder()
-                .userId(2L)
-                .orderStatus(OrderStatus.Delivered)
-                .date(new Date()) // aujourd'hui
-                .build();
+        assertThat(((Number) stored).shortValue()).isEqualTo(OrderStatus.Shipped.getCode());
+        assertThat(orderRepository.countGroupedByOrderStatus(List.of(OrderStatus.Shipped)))
+                .containsExactly(new OrderStatusCount(OrderStatus.Shipped, 1L));
+        assertThat(orderRepository.findDtosByOrderStatusIn(List.of(OrderStatus.Shipped, OrderStatus.Delivered)))
+                .extracting(OrderDto::getId).containsExactly(order.getId());
+    }
 
-        Order order3 = Order.builder()
-                .userId(3L)
-                .orderStatus(OrderStatus.Shipped)
-                .date(new Date()) // mauvais statut
-                .build();
+    @Test
+    void testCartItems_ArePersistedAndFetchedWithTheOrder() {
+        Order order = Order.builder().userId(6L).orderStatus(OrderStatus.Pending).build();
+        order.replaceItems(List.of(
+                CartItemsDto.builder().productId(10L).productName("Pen").price(150L).quantity(2L).build(),
+                CartItemsDto.builder().productId(11L).productName("Ink").price(400L).quantity(1L).build()));
+        orderRepository.saveAndFlush(order);
+        entityManager.clear();
+
+        Order found = orderRepository.findById(order.getId()).orElseThrow();
+        entityManager.clear();
+
+        // Chargés par la même requête : accessibles une fois le contexte de persistance vidé
+        assertThat(found.getOrderDto().getCartItems())
+                .extracting(CartItemsDto::getProductName, CartItemsDto::getOrderId, CartItemsDto::getUserId)
+                .containsExactly(tuple("Pen", order.getId(), 6L), tuple("Ink", order.getId(), 6L));
+    }
 
-        orderRepository.saveAll(List.of(order1, order2, order3));
+    @Test
+    void testReplaceItems_UpdatesKeptItemsAndRemovesTheOthers() {
+        Order order = Order.builder().userId(7L).orderStatus(OrderStatus.Pending).build();
+        order.replaceItems(List.of(
+                CartItemsDto.builder().productId(10L).quantity(1L).build(),
+                CartItemsDto.builder().productId(11L).quantity(1L).build()));
+        orderRepository.saveAndFlush(order);
+        Long keptId = order.getItems().get(0).getId();
+
+        order.replaceItems(List.of(
+                CartItemsDto.builder().id(keptId).productId(10L).quantity(3L).build(),
+                CartItemsDto.builder().productId(12L).quantity(1L).build()));
+        orderRepository.saveAndFlush(order);
+        entityManager.clear();
+
+        List<CartItemsDto> items = orderRepository.findById(order.getId()).orElseThrow().getOrderDto().getCartItems();
+        assertThat(items).extracting(CartItemsDto::getId, CartItemsDto::getProductId, CartItemsDto::getQuantity)
+                .containsExactly(tuple(keptId, 10L, 3L), tuple(items.get(1).getId(), 12L, 1L));
+        assertThat(entityManager.createNativeQuery("select count(*) from order_items").getSingleResult())
+                .isEqualTo(2L);
+    }
 
-        List<Order> result = orderRepository.findByDateBetweenAndOrderStatus(start, end, OrderStatus.Delivered);
+    @Test
+    void testFindDtoById_FoldsItemRowsIntoOneOrder() {
+        Order order = Order.builder().userId(8L).orderStatus(OrderStatus.Pending).amount(700L).build();
+        order.replaceItems(List.of(
+                CartItemsDto.builder().productId(10L).productName("Pen").price(150L).quantity(2L).build(),
+                CartItemsDto.builder().productId(11L).productName("Ink").price(400L).quantity(1L).build()));
+        orderRepository.saveAndFlush(order);
+        entityManager.clear();
+
+        OrderDto found = orderRepository.findDtoById(order.getId()).orElseThrow();
+
+        // aucune entité chargée dans le contexte de persistance
+        assertThat(entityManager.contains(order)).isFalse();
+        assertThat(found.getAmount()).isEqualTo(700L);
+        assertThat(found.getCartItems())
+                .extracting(CartItemsDto::getProductName, CartItemsDto::getOrderId, CartItemsDto::getImageUrl)
+                .containsExactly(tuple("Pen", order.getId(), CartItemsDto.imageUrl(10L)),
+                        tuple("Ink", order.getId(), CartItemsDto.imageUrl(11L)));
+        assertThat(orderRepository.findDtoByUserIdAndOrderStatus(8L, OrderStatus.Pending)).contains(found);
+        assertThat(orderRepository.findDtoById(-1L)).isEmpty();
+    }
 
-        assertThat(result).hasSize(2);
-        assertThat(result).allMatch(o -> o.getOrderStatus() == OrderStatus.Delivered);
+    @Test
+    void testFindDtoPage_LimitsOrdersRatherThanItemRows() {
+        Order first = Order.builder().userId(9L).orderStatus(OrderStatus.Placed).date(new Date()).build();
+        first.replaceItems(List.of(
+                CartItemsDto.builder().productId(1L).quantity(1L).build(),
+                CartItemsDto.builder().productId(2L).quantity(1L).build(),
+                CartItemsDto.builder().productId(3L).quantity(1L).build()));
+        List<Order> saved = orderRepository.saveAll(List.of(first,
+                Order.builder().userId(9L).orderStatus(OrderStatus.Shipped).date(new Date()).build(),
+                Order.builder().userId(9L).orderStatus(OrderStatus.Delivered).date(new Date()).build()));
+        orderRepository.flush();
+        entityManager.clear();
+
+        List<OrderDto> page = orderRepository.findDtoPageByOrderStatusIn(
+                List.of(OrderStatus.Placed, OrderStatus.Shipped, OrderStatus.Delivered), 0L, Limit.of(2));
+
+        assertThat(page).extracting(OrderDto::getId).containsExactly(saved.get(0).getId(), saved.get(1).getId());
+        assertThat(page.get(0).getCartItems()).hasSize(3);
+        assertThat(page.get(1).getCartItems()).isNull();
     }
 
 
+    @Test
+    void updateOrderStatus_bumpsTheVersionSeenByReads() {
+        Order order = orderRepository.saveAndFlush(Order.builder().userId(77L).orderStatus(OrderStatus.Placed).build());
+        assertThat(order.getVersion()).isZero();
+
+        assertThat(orderRepository.updateOrderStatus(List.of(order.getId()), OrderStatus.Placed, OrderStatus.Shipped)).isEqualTo(1);
+        assertThat(orderRepository.updateOrderStatus(List.of(order.getId()), OrderStatus.Placed, OrderStatus.Shipped)).isZero();
+        entityManager.clear();
+
+        OrderDto dto = orderRepository.findDtoById(order.getId()).orElseThrow();
+        assertThat(dto.getOrderStatus()).isEqualTo(OrderStatus.Shipped);
+        assertThat(dto.getVersion()).isEqualTo(1L);
+    }
 }
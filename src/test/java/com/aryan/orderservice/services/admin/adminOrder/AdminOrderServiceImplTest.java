@@ -1,5 +1,6 @@
 package com.aryan.orderservice.services.admin.adminOrder;
 
+import com.aryan.orderservice.cache.OrderDtoCache;
 import com.aryan.orderservice.dto.AnalyticsResponse;
 import com.aryan.orderservice.dto.OrderDto;
 import com.aryan.orderservice.dto.UserDto;
@@ -7,10 +8,18 @@ import com.aryan.orderservice.enums.OrderStatus;
 import com.aryan.orderservice.feign.UserClient;
 import com.aryan.orderservice.model.Order;
 import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.repository.projection.MonthlyOrderTotals;
+import com.aryan.orderservice.repository.projection.OrderStatusCount;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import com.aryan.orderservice.services.user.UserLookupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -25,29 +34,28 @@ class AdminOrderServiceImplTest {
     private OrderRepository orderRepository;
     private AdminOrderServiceImpl adminOrderService;
     private UserClient userClient;
+    private OrderAnalyticsRollup analyticsRollup;
+    private OrderOutbox orderOutbox;
 
     @BeforeEach
     void setUp() {
         orderRepository = mock(OrderRepository.class);
         userClient = mock(UserClient.class);
-        adminOrderService = new AdminOrderServiceImpl(orderRepository, userClient);
+        analyticsRollup = new OrderAnalyticsRollup(orderRepository, 24);
+        orderOutbox = mock(OrderOutbox.class);
+        adminOrderService = new AdminOrderServiceImpl(orderRepository, new UserLookupService(userClient, 2), analyticsRollup,
+                new OrderDtoCache(new ConcurrentMapCache("ordersById"), new ConcurrentMapCache("ordersByTrackingId"),
+                        new ConcurrentMapCache("pendingOrderByUserId")), orderOutbox);
     }
 
     @Test
     void testGetAllPlacedOrders() {
-        Order order1 = mock(Order.class);
-        Order order2 = mock(Order.class);
+        OrderDto dto1 = OrderDto.builder().id(1L).userId(1L).build();
+        OrderDto dto2 = OrderDto.builder().id(2L).userId(2L).build();
 
-        OrderDto dto1 = new OrderDto();
-        OrderDto dto2 = new OrderDto();
-
-        when(order1.getOrderDto()).thenReturn(dto1);
-        when(order2.getOrderDto()).thenReturn(dto2);
-
-        List<Order> orders = List.of(order1, order2);
-        when(orderRepository.findAllByOrderStatusIn(List.of(
+        when(orderRepository.findDtosByOrderStatusIn(List.of(
                 OrderStatus.Placed, OrderStatus.Shipped, OrderStatus.Delivered)))
-                .thenReturn(orders);
+                .thenReturn(List.of(dto1, dto2));
 
         // Mock de userClient
         UserDto userDto = new UserDto();
@@ -61,8 +69,45 @@ class AdminOrderServiceImplTest {
         assertEquals(2, result.size());
         assertTrue(result.contains(dto1));
         assertTrue(result.contains(dto2));
-        verify(orderRepository, times(1)).findAllByOrderStatusIn(anyList());
-        verify(userClient, times(2)).getUserById(anyLong()); // chaque order
+        verify(orderRepository, times(1)).findDtosByOrderStatusIn(anyCollection());
+        verify(orderRepository, never()).findAll();
+        verify(userClient, times(2)).getUserById(anyLong()); // chaque utilisateur distinct
+    }
+
+    @Test
+    void testGetAllPlacedOrders_LooksUpEachUserOnce() {
+        OrderDto dto1 = OrderDto.builder().id(1L).userId(7L).build();
+        OrderDto dto2 = OrderDto.builder().id(2L).userId(7L).build();
+
+        when(orderRepository.findDtosByOrderStatusIn(anyCollection())).thenReturn(List.of(dto1, dto2));
+        UserDto userDto = UserDto.builder().id(7L).name("Alice").build();
+        when(userClient.getUsersByIds(anyCollection())).thenReturn(ResponseEntity.ok(List.of(userDto)));
+
+        adminOrderService.getAllPlacedOrders();
+
+        verify(userClient, times(1)).getUsersByIds(anyCollection());
+        verify(userClient, never()).getUserById(anyLong());
+        assertEquals("Alice", dto1.getUserName());
+        assertEquals("Alice", dto2.getUserName());
+    }
+
+    @Test
+    void testStreamPlacedOrders_WalksKeysetPages() {
+        OrderDto order1 = OrderDto.builder().id(1L).userId(1L).orderStatus(OrderStatus.Placed).build();
+        OrderDto order2 = OrderDto.builder().id(2L).userId(1L).orderStatus(OrderStatus.Shipped).build();
+        OrderDto order3 = OrderDto.builder().id(5L).userId(2L).orderStatus(OrderStatus.Delivered).build();
+
+        when(orderRepository.findDtoPageByOrderStatusIn(anyCollection(), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(order1, order2));
+        when(orderRepository.findDtoPageByOrderStatusIn(anyCollection(), eq(2L), eq(Limit.of(2))))
+                .thenReturn(List.of(order3));
+
+        List<List<OrderDto>> pages = new ArrayList<>();
+        adminOrderService.streamPlacedOrders(2, pages::add);
+
+        assertEquals(2, pages.size());
+        assertEquals(5L, pages.get(1).get(0).getId());
+        verify(orderRepository, never()).findDtosByOrderStatusIn(anyCollection());
     }
 
     @Test
@@ -80,7 +125,7 @@ class AdminOrderServiceImplTest {
         when(order.getOrderDto()).thenReturn(expectedDto);
 
         // Exécution
-        OrderDto result = adminOrderService.changeOrderStatus(orderId, status);
+        OrderDto result = adminOrderService.changeOrderStatus(orderId, status, null);
 
         // Vérification
         assertNotNull(result);
@@ -96,7 +141,7 @@ class AdminOrderServiceImplTest {
         when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
 
         // Exécution
-        OrderDto result = adminOrderService.changeOrderStatus(orderId, "Shipped");
+        OrderDto result = adminOrderService.changeOrderStatus(orderId, "Shipped", null);
 
         // Vérification
         assertNull(result);
@@ -104,25 +149,42 @@ class AdminOrderServiceImplTest {
     }
 
     @Test
-    void testCalculateAnalytics() {
-        AdminOrderServiceImpl spyService = spy(new AdminOrderServiceImpl(orderRepository, userClient));
+    void testChangeOrderStatus_UnknownStatus_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> adminOrderService.changeOrderStatus(1L, "Lost", null));
 
-        // Mock du comportement interne
-        LocalDate currentDate = LocalDate.now();
-        LocalDate previousMonth = currentDate.minusMonths(1);
+        verifyNoInteractions(orderRepository, orderOutbox);
+    }
 
-        when(spyService.getTotalOrdersForMonths(currentDate.getMonthValue(), currentDate.getYear())).thenReturn(10L);
-        when(spyService.getTotalOrdersForMonths(previousMonth.getMonthValue(), previousMonth.getYear())).thenReturn(8L);
+    @Test
+    void testChangeOrderStatus_SameStatus_WritesNothing() {
+        Order order = Order.builder().id(4L).orderStatus(OrderStatus.Shipped).amount(40L).date(new Date()).version(2L).build();
+        when(orderRepository.findById(4L)).thenReturn(Optional.of(order));
 
-        when(spyService.getTotalEarningsForMonth(currentDate.getMonthValue(), currentDate.getYear())).thenReturn(1000L);
-        when(spyService.getTotalEarningsForMonth(previousMonth.getMonthValue(), previousMonth.getYear())).thenReturn(900L);
+        OrderDto result = adminOrderService.changeOrderStatus(4L, "Shipped", 2L);
 
-        when(orderRepository.countByOrderStatus(OrderStatus.Placed)).thenReturn(5L);
-        when(orderRepository.countByOrderStatus(OrderStatus.Shipped)).thenReturn(3L);
-        when(orderRepository.countByOrderStatus(OrderStatus.Delivered)).thenReturn(2L);
+        // ni écriture, ni événement, ni delta pour l'analytique
+        assertEquals(OrderStatus.Shipped, result.getOrderStatus());
+        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).flush();
+        verifyNoInteractions(orderOutbox);
+    }
+
+    @Test
+    void testCalculateAnalytics() {
+        LocalDate currentDate = LocalDate.now();
+        LocalDate previousMonth = currentDate.minusMonths(1);
+
+        when(orderRepository.countGroupedByOrderStatus(anyList())).thenReturn(List.of(
+                new OrderStatusCount(OrderStatus.Placed, 5L),
+                new OrderStatusCount(OrderStatus.Shipped, 3L),
+                new OrderStatusCount(OrderStatus.Delivered, 2L)));
+        when(orderRepository.sumGroupedByStatusAndMonth(eq(List.of(OrderStatus.Delivered)), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(
+                        new MonthlyOrderTotals(OrderStatus.Delivered, currentDate.getYear(), currentDate.getMonthValue(), 10L, 1000L),
+                        new MonthlyOrderTotals(OrderStatus.Delivered, previousMonth.getYear(), previousMonth.getMonthValue(), 8L, 900L)));
 
         // Exécution
-        AnalyticsResponse result = spyService.calculateAnalytics();
+        AnalyticsResponse result = adminOrderService.calculateAnalytics();
 
         // Vérifications
         assertNotNull(result);
@@ -134,9 +196,59 @@ class AdminOrderServiceImplTest {
         assertEquals(1000L, result.getCurrentMonthEarnings());
         assertEquals(900L, result.getPreviousMonthEarnings());
 
-        verify(orderRepository).countByOrderStatus(OrderStatus.Placed);
-        verify(orderRepository).countByOrderStatus(OrderStatus.Shipped);
-        verify(orderRepository).countByOrderStatus(OrderStatus.Delivered);
+        // Deux requêtes agrégées, aucune entité chargée
+        verify(orderRepository, times(1)).countGroupedByOrderStatus(anyList());
+        verify(orderRepository, times(1)).sumGroupedByStatusAndMonth(anyList(), any(Date.class), any(Date.class));
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void testCalculateAnalytics_EmptyMonthsAreZero() {
+        when(orderRepository.countGroupedByOrderStatus(anyList())).thenReturn(List.of());
+        when(orderRepository.sumGroupedByStatusAndMonth(anyList(), any(Date.class), any(Date.class))).thenReturn(List.of());
+
+        AnalyticsResponse result = adminOrderService.calculateAnalytics();
+
+        assertEquals(0L, result.getPlaced());
+        assertEquals(0L, result.getCurrentMonthOrders());
+        assertEquals(0L, result.getPreviousMonthEarnings());
+    }
+
+    @Test
+    void testCalculateAnalytics_AnswersFromRollupOnceLoaded() {
+        LocalDate currentDate = LocalDate.now();
+        when(orderRepository.countGroupedByOrderStatus(anyList())).thenReturn(List.of(
+                new OrderStatusCount(OrderStatus.Placed, 4L)));
+        when(orderRepository.sumGroupedByStatusAndMonth(anyList(), any(Date.class), any(Date.class))).thenReturn(List.of(
+                new MonthlyOrderTotals(OrderStatus.Delivered, currentDate.getYear(), currentDate.getMonthValue(), 1L, 250L)));
+        analyticsRollup.reconcile();
+        clearInvocations(orderRepository);
+
+        AnalyticsResponse result = adminOrderService.calculateAnalytics();
+
+        assertEquals(4L, result.getPlaced());
+        assertEquals(1L, result.getCurrentMonthOrders());
+        assertEquals(250L, result.getCurrentMonthEarnings());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testChangeOrderStatus_UpdatesRollup() {
+        when(orderRepository.countGroupedByOrderStatus(anyList())).thenReturn(List.of(
+                new OrderStatusCount(OrderStatus.Placed, 1L)));
+        when(orderRepository.sumGroupedByStatusAndMonth(anyList(), any(Date.class), any(Date.class))).thenReturn(List.of());
+        analyticsRollup.reconcile();
+
+        Order order = Order.builder().id(3L).orderStatus(OrderStatus.Placed).amount(40L).date(new Date()).build();
+        when(orderRepository.findById(3L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        adminOrderService.changeOrderStatus(3L, "Delivered", null);
+
+        AnalyticsResponse result = adminOrderService.calculateAnalytics();
+        assertEquals(0L, result.getPlaced());
+        assertEquals(1L, result.getDelivered());
+        assertEquals(40L, result.getCurrentMonthEarnings());
     }
 
     @Test
@@ -144,17 +256,15 @@ class AdminOrderServiceImplTest {
         Long userId = 123L;
         OrderStatus status = OrderStatus.Placed;
 
-        Order order = mock(Order.class);
         OrderDto dto = new OrderDto();
 
-        when(orderRepository.findByUserIdAndOrderStatus(userId, status)).thenReturn(order);
-        when(order.getOrderDto()).thenReturn(dto);
+        when(orderRepository.findDtoByUserIdAndOrderStatus(userId, status)).thenReturn(Optional.of(dto));
 
         OrderDto result = adminOrderService.getOrderByUserIdAndOrderStatus(userId, status);
 
         assertNotNull(result);
         assertEquals(dto, result);
-        verify(orderRepository).findByUserIdAndOrderStatus(userId, status);
+        verify(orderRepository).findDtoByUserIdAndOrderStatus(userId, status);
     }
 
     @Test
@@ -162,12 +272,12 @@ class AdminOrderServiceImplTest {
         Long userId = 456L;
         OrderStatus status = OrderStatus.Delivered;
 
-        when(orderRepository.findByUserIdAndOrderStatus(userId, status)).thenReturn(null);
+        when(orderRepository.findDtoByUserIdAndOrderStatus(userId, status)).thenReturn(Optional.empty());
 
         OrderDto result = adminOrderService.getOrderByUserIdAndOrderStatus(userId, status);
 
         assertNull(result);
-        verify(orderRepository).findByUserIdAndOrderStatus(userId, status);
+        verify(orderRepository).findDtoByUserIdAndOrderStatus(userId, status);
     }
 
     @Test
@@ -175,40 +285,27 @@ class AdminOrderServiceImplTest {
         int month = 4; // Avril
         int year = 2024;
 
-        Order order1 = mock(Order.class);
-        Order order2 = mock(Order.class);
-
-        List<Order> orders = List.of(order1, order2);
-
-        when(orderRepository.findByDateBetweenAndOrderStatus(any(Date.class), any(Date.class), eq(OrderStatus.Delivered)))
-                .thenReturn(orders);
+        when(orderRepository.sumGroupedByStatusAndMonth(eq(List.of(OrderStatus.Delivered)),
+                eq(AdminOrderServiceImpl.startOfMonth(4, 2024)), eq(AdminOrderServiceImpl.startOfMonth(5, 2024))))
+                .thenReturn(List.of(new MonthlyOrderTotals(OrderStatus.Delivered, year, month, 2L, 300L)));
 
         Long result = adminOrderService.getTotalOrdersForMonths(month, year);
 
         assertEquals(2L, result);
-        verify(orderRepository).findByDateBetweenAndOrderStatus(any(Date.class), any(Date.class), eq(OrderStatus.Delivered));
     }
 
     @Test
     void testGetTotalEarningsForMonth() {
-        int month = 4;
+        int month = 12;
         int year = 2024;
 
-        Order order1 = mock(Order.class);
-        Order order2 = mock(Order.class);
-
-        when(order1.getAmount()).thenReturn(100L);
-        when(order2.getAmount()).thenReturn(200L);
-
-        List<Order> orders = List.of(order1, order2);
-
-        when(orderRepository.findByDateBetweenAndOrderStatus(any(Date.class), any(Date.class), eq(OrderStatus.Delivered)))
-                .thenReturn(orders);
+        when(orderRepository.sumGroupedByStatusAndMonth(eq(List.of(OrderStatus.Delivered)),
+                eq(AdminOrderServiceImpl.startOfMonth(12, 2024)), eq(AdminOrderServiceImpl.startOfMonth(1, 2025))))
+                .thenReturn(List.of(new MonthlyOrderTotals(OrderStatus.Delivered, year, month, 2L, 300L)));
 
         Long result = adminOrderService.getTotalEarningsForMonth(month, year);
 
         assertEquals(300L, result);
-        verify(orderRepository).findByDateBetweenAndOrderStatus(any(Date.class), any(Date.class), eq(OrderStatus.Delivered));
     }
 
 
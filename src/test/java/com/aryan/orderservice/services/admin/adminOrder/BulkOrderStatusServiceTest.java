@@ -0,0 +1,93 @@
+package com.aryan.orderservice.services.admin.adminOrder;
+
+import com.aryan.orderservice.cache.OrderDtoCache;
+import com.aryan.orderservice.dto.BulkStatusChangeResult;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.profiles.active=test",
+        "order.bulk.status-batch-size=2"
+})
+class BulkOrderStatusServiceTest {
+
+    /** Propre à ce test : la base H2 en mémoire est partagée par les contextes Spring ***/
+    private static final Long USER_ID = 922L;
+
+    @Autowired
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderAnalyticsRollup analyticsRollup;
+
+    @Autowired
+    private OrderDtoCache orderDtoCache;
+
+    @Test
+    void changeOrderStatuses_followsTheLifecycleAndKeepsTheRollupInStep() {
+        Long placed = save(OrderStatus.Placed, 100L);
+        Long otherPlaced = save(OrderStatus.Placed, 200L);
+        Long shipped = save(OrderStatus.Shipped, 300L);
+        Long delivered = save(OrderStatus.Delivered, 400L);
+        Long pending = save(OrderStatus.Pending, 500L);
+        analyticsRollup.reconcile();
+
+        BulkStatusChangeResult result = bulkOrderStatusService.changeOrderStatuses(
+                List.of(placed, shipped, delivered, pending, -1L, otherPlaced, placed), OrderStatus.Shipped);
+
+        assertThat(result.getChanged()).containsExactly(placed, otherPlaced);
+        assertThat(result.getUnchanged()).containsExactly(shipped);
+        assertThat(result.getRejected()).containsExactly(delivered, pending);
+        assertThat(result.getNotFound()).containsExactly(-1L);
+        assertThat(result.getConflicted()).isEmpty();
+        assertThat(orderRepository.findDtoById(otherPlaced).orElseThrow().getOrderStatus()).isEqualTo(OrderStatus.Shipped);
+        assertThat(orderRepository.findDtoById(pending).orElseThrow().getOrderStatus()).isEqualTo(OrderStatus.Pending);
+
+        // the incremental rollup matches one rebuilt from the table
+        OrderAnalyticsRollup rebuilt = new OrderAnalyticsRollup(orderRepository, 24);
+        rebuilt.reconcile();
+        assertThat(analyticsRollup.currentAnalytics()).isEqualTo(rebuilt.currentAnalytics());
+    }
+
+    @Test
+    void changeOrderStatuses_evictsTheCachedOrdersOnceCommitted() {
+        Long userId = USER_ID + 1;
+        UUID trackingId = UUID.randomUUID();
+        Long placed = orderRepository.save(Order.builder().orderStatus(OrderStatus.Placed).amount(10L).date(new Date())
+                .userId(userId).trackingId(trackingId).build()).getId();
+        Long pending = orderRepository.save(Order.builder().orderStatus(OrderStatus.Pending).amount(20L).date(new Date())
+                .userId(userId).build()).getId();
+        orderDtoCache.getById(placed, id -> orderRepository.findDtoById(id).orElse(null));
+        orderDtoCache.getByTrackingId(trackingId, id -> orderRepository.findDtoByTrackingId(id).orElse(null));
+        orderDtoCache.getPendingByUserId(userId, id -> orderRepository.findDtoByUserIdAndOrderStatus(id, OrderStatus.Pending).orElse(null));
+
+        bulkOrderStatusService.changeOrderStatuses(List.of(placed), OrderStatus.Shipped);
+        bulkOrderStatusService.changeOrderStatuses(List.of(pending), OrderStatus.Placed);
+
+        // chaque lecture suivante repasse par la base
+        assertThat(orderDtoCache.getById(placed, id -> orderRepository.findDtoById(id).orElse(null)).getOrderStatus())
+                .isEqualTo(OrderStatus.Shipped);
+        assertThat(orderDtoCache.getByTrackingId(trackingId, id -> orderRepository.findDtoByTrackingId(id).orElse(null)).getOrderStatus())
+                .isEqualTo(OrderStatus.Shipped);
+        assertThat(orderDtoCache.getPendingByUserId(userId,
+                id -> orderRepository.findDtoByUserIdAndOrderStatus(id, OrderStatus.Pending).orElse(null))).isNull();
+    }
+
+    private Long save(OrderStatus status, Long amount) {
+        return orderRepository.save(Order.builder().orderStatus(status).amount(amount).date(new Date()).userId(USER_ID).build()).getId();
+    }
+}
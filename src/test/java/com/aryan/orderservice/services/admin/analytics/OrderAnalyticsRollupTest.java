@@ -0,0 +1,114 @@
+package com.aryan.orderservice.services.admin.analytics;
+
+import com.aryan.orderservice.dto.AnalyticsResponse;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.repository.projection.MonthlyOrderTotals;
+import com.aryan.orderservice.repository.projection.OrderStatusCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderAnalyticsRollupTest {
+
+    private OrderRepository orderRepository;
+    private OrderAnalyticsRollup rollup;
+
+    private final LocalDate today = LocalDate.now();
+    private final Date thisMonth = Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    private final Date lastMonth = Date.from(today.minusMonths(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        rollup = new OrderAnalyticsRollup(orderRepository, 24);
+
+        when(orderRepository.countGroupedByOrderStatus(anyList())).thenReturn(List.of(
+                new OrderStatusCount(OrderStatus.Placed, 2L),
+                new OrderStatusCount(OrderStatus.Delivered, 3L)));
+        LocalDate previous = today.minusMonths(1);
+        when(orderRepository.sumGroupedByStatusAndMonth(anyList(), any(Date.class), any(Date.class))).thenReturn(List.of(
+                new MonthlyOrderTotals(OrderStatus.Delivered, today.getYear(), today.getMonthValue(), 2L, 200L),
+                new MonthlyOrderTotals(OrderStatus.Delivered, previous.getYear(), previous.getMonthValue(), 1L, 50L)));
+    }
+
+    @Test
+    void currentAnalytics_isEmptyUntilFirstReconciliation() {
+        rollup.recordChange(null, new OrderAnalyticsRollup.Snapshot(OrderStatus.Placed, thisMonth, 10L));
+
+        assertThat(rollup.currentAnalytics()).isEmpty();
+    }
+
+    @Test
+    void reconcile_loadsCountsAndMonthlyTotals() {
+        rollup.reconcile();
+
+        AnalyticsResponse analytics = rollup.currentAnalytics().orElseThrow();
+        assertThat(analytics).isEqualTo(new AnalyticsResponse(2L, 0L, 3L, 2L, 1L, 200L, 50L));
+    }
+
+    @Test
+    void recordChange_movesOrderBetweenStatusesAndMonths() {
+        rollup.reconcile();
+
+        rollup.recordChange(null, new OrderAnalyticsRollup.Snapshot(OrderStatus.Pending, null, 30L));
+        rollup.recordChange(
+                new OrderAnalyticsRollup.Snapshot(OrderStatus.Placed, thisMonth, 30L),
+                new OrderAnalyticsRollup.Snapshot(OrderStatus.Delivered, thisMonth, 30L));
+        rollup.recordChange(
+                new OrderAnalyticsRollup.Snapshot(OrderStatus.Delivered, lastMonth, 50L),
+                new OrderAnalyticsRollup.Snapshot(OrderStatus.Delivered, thisMonth, 50L));
+
+        AnalyticsResponse analytics = rollup.currentAnalytics().orElseThrow();
+        assertThat(analytics).isEqualTo(new AnalyticsResponse(1L, 0L, 4L, 4L, 0L, 280L, 0L));
+    }
+
+    @Test
+    void reconcile_keepsChangesCommittedDuringTheRebuild() {
+        rollup.reconcile();
+        // the change commits after the counts were read, so the rebuilt totals do not include it yet
+        when(orderRepository.countGroupedByOrderStatus(anyList())).thenAnswer(invocation -> {
+            rollup.recordChange(
+                    new OrderAnalyticsRollup.Snapshot(OrderStatus.Placed, thisMonth, 10L),
+                    new OrderAnalyticsRollup.Snapshot(OrderStatus.Shipped, thisMonth, 10L));
+            return List.of(
+                    new OrderStatusCount(OrderStatus.Placed, 2L),
+                    new OrderStatusCount(OrderStatus.Delivered, 3L));
+        });
+
+        rollup.reconcile();
+
+        AnalyticsResponse analytics = rollup.currentAnalytics().orElseThrow();
+        assertThat(analytics.getPlaced()).isEqualTo(1L);
+        assertThat(analytics.getShipped()).isEqualTo(1L);
+    }
+
+    @Test
+    void recordChange_insideTransactionWaitsForCommit() {
+        rollup.reconcile();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rollup.recordChange(
+                    new OrderAnalyticsRollup.Snapshot(OrderStatus.Placed, thisMonth, 10L),
+                    new OrderAnalyticsRollup.Snapshot(OrderStatus.Shipped, thisMonth, 10L));
+            assertThat(rollup.currentAnalytics().orElseThrow().getShipped()).isZero();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertThat(rollup.currentAnalytics().orElseThrow().getShipped()).isEqualTo(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
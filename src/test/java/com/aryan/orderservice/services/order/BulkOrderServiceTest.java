@@ -0,0 +1,74 @@
+package com.aryan.orderservice.services.order;
+
+import com.aryan.orderservice.dto.BulkOrderResult;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "spring.profiles.active=test",
+        "order.bulk.chunk-size=2"
+})
+class BulkOrderServiceTest {
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createOrders_rejectsInvalidRequestsAndWritesTheOthersInChunks() {
+        // panier absent mis en cache avant l'import
+        assertThat(orderService.getCartByUserId(801L)).isNull();
+
+        List<BulkOrderResult> results = bulkOrderService.createOrders(List.of(
+                OrderRequest.builder().userId(801L).amount(10L).orderStatus("Pending").build(),
+                OrderRequest.builder().userId(802L).orderStatus("Lost").build(),
+                OrderRequest.builder().userId(802L).amount(20L).orderStatus("Placed").build(),
+                OrderRequest.builder().userId(803L).build(),
+                OrderRequest.builder().userId(803L).amount(30L).orderStatus("Delivered").build()).iterator());
+
+        assertThat(results).extracting(BulkOrderResult::getIndex, BulkOrderResult::getStatus, BulkOrderResult::getError)
+                .containsExactly(
+                        tuple(0, BulkOrderResult.Status.CREATED, null),
+                        tuple(1, BulkOrderResult.Status.REJECTED, "Unknown orderStatus Lost"),
+                        tuple(2, BulkOrderResult.Status.CREATED, null),
+                        tuple(3, BulkOrderResult.Status.REJECTED, "orderStatus is required"),
+                        tuple(4, BulkOrderResult.Status.CREATED, null));
+        assertThat(orderRepository.findById(results.get(4).getOrderId()).orElseThrow().getAmount()).isEqualTo(30L);
+        assertThat(orderService.getCartByUserId(801L).getId()).isEqualTo(results.get(0).getOrderId());
+    }
+
+    @Test
+    void createOrders_stopsAtTheFirstUnreadableRequest() throws Exception {
+        String body = """
+                {"userId": 811, "orderStatus": "Placed"}
+                {"userId": 812, "orderStatus":
+                {"userId": 813, "orderStatus": "Placed"}
+                """;
+
+        List<BulkOrderResult> results = bulkOrderService.createOrders(
+                objectMapper.readerFor(OrderRequest.class).readValues(body));
+
+        assertThat(results).extracting(BulkOrderResult::getStatus)
+                .containsExactly(BulkOrderResult.Status.CREATED, BulkOrderResult.Status.REJECTED);
+        assertThat(results.get(1).getError()).startsWith("Unreadable request");
+        assertThat(orderRepository.findDtosByUserIdAndOrderStatusIn(813L, List.of(OrderStatus.Placed))).isEmpty();
+    }
+}
@@ -0,0 +1,300 @@
+package com.aryan.orderservice.services.order;
+
+import com.aryan.orderservice.cache.OrderDtoCache;
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderPatch;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.Order;
+import com.aryan.orderservice.repository.OrderRepository;
+import com.aryan.orderservice.services.admin.analytics.OrderAnalyticsRollup;
+import com.aryan.orderservice.services.outbox.OrderOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderServiceImplTest {
+
+    private OrderRepository orderRepository;
+    private OrderAnalyticsRollup analyticsRollup;
+    private OrderOutbox orderOutbox;
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        analyticsRollup = mock(OrderAnalyticsRollup.class);
+        orderOutbox = mock(OrderOutbox.class);
+        orderService = new OrderServiceImpl(orderRepository, analyticsRollup,
+                new OrderDtoCache(new ConcurrentMapCache("ordersById"), new ConcurrentMapCache("ordersByTrackingId"),
+                        new ConcurrentMapCache("pendingOrderByUserId")), orderOutbox);
+    }
+
+    @Test
+    void testCreateOrder_SavesOnce() {
+        OrderRequest request = OrderRequest.builder()
+                .userId(1L)
+                .amount(100L)
+                .totalAmount(120L)
+                .discount(20L)
+                .orderStatus("Placed")
+                .build();
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderDto result = orderService.createOrder(request);
+
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(1)).save(saved.capture());
+        assertEquals(OrderStatus.Placed, saved.getValue().getOrderStatus());
+        assertEquals(120L, result.getTotalAmount());
+        verify(analyticsRollup).recordChange(isNull(), eq(new OrderAnalyticsRollup.Snapshot(OrderStatus.Placed, null, 100L)));
+    }
+
+    @Test
+    void testGetOrderById_SingleLookup() {
+        OrderDto order = OrderDto.builder().id(1L).orderStatus(OrderStatus.Placed).build();
+        when(orderRepository.findDtoById(1L)).thenReturn(Optional.of(order));
+
+        OrderDto result = orderService.getOrderById(1L);
+
+        assertEquals(1L, result.getId());
+        verify(orderRepository, times(1)).findDtoById(1L);
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetOrderById_SecondReadServedFromCache() {
+        OrderDto order = OrderDto.builder().id(1L).orderStatus(OrderStatus.Placed).build();
+        when(orderRepository.findDtoById(1L)).thenReturn(Optional.of(order));
+
+        orderService.getOrderById(1L);
+        OrderDto result = orderService.getOrderById(1L);
+
+        assertEquals(1L, result.getId());
+        verify(orderRepository, times(1)).findDtoById(1L);
+    }
+
+    @Test
+    void testUpdateOrder_EvictsCachedOrder() {
+        Order existing = Order.builder().id(1L).orderStatus(OrderStatus.Pending).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderRepository.findDtoById(1L)).thenAnswer(invocation -> Optional.of(existing.getOrderDto()));
+        assertEquals(OrderStatus.Pending, orderService.getOrderById(1L).getOrderStatus());
+
+        orderService.updateOrder(OrderDto.builder().id(1L).orderStatus(OrderStatus.Placed).build());
+
+        // la lecture suivante doit recharger la commande mise à jour
+        assertEquals(OrderStatus.Placed, orderService.getOrderById(1L).getOrderStatus());
+        verify(orderRepository, times(2)).findDtoById(1L);
+        verify(orderRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testGetOrderById_NotFound() {
+        when(orderRepository.findDtoById(2L)).thenReturn(Optional.empty());
+
+        assertNull(orderService.getOrderById(2L));
+        assertNull(orderService.getOrderById(2L));
+        // les commandes absentes ne sont pas mises en cache
+        verify(orderRepository, times(2)).findDtoById(2L);
+    }
+
+    @Test
+    void testUpdateOrder_AppliesFieldsWithoutExplicitSave() {
+        Date originalDate = new Date(0);
+        Order existing = Order.builder().id(1L).orderStatus(OrderStatus.Pending).amount(50L).date(originalDate).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        OrderDto orderDto = OrderDto.builder()
+                .id(1L)
+                .address("123 Street")
+                .orderStatus(OrderStatus.Placed)
+                .amount(180L)
+                .trackingId(UUID.randomUUID())
+                .date(new Date())
+                .build();
+
+        OrderDto result = orderService.updateOrder(orderDto);
+
+        assertEquals("123 Street", result.getAddress());
+        assertEquals(OrderStatus.Placed, existing.getOrderStatus());
+        assertEquals(originalDate, existing.getDate());
+        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, never()).save(any());
+        // flushed once so that the DTO carries the new version, the UPDATE is not repeated at commit
+        verify(orderRepository, times(1)).flush();
+        // l'événement est ajouté après le flush, avec la nouvelle version
+        InOrder inOrder = inOrder(orderRepository, orderOutbox);
+        inOrder.verify(orderRepository).flush();
+        inOrder.verify(orderOutbox).append(OrderEventType.UPDATED, existing);
+        verify(analyticsRollup).recordChange(
+                new OrderAnalyticsRollup.Snapshot(OrderStatus.Pending, originalDate, 50L),
+                new OrderAnalyticsRollup.Snapshot(OrderStatus.Placed, originalDate, 180L));
+    }
+
+    @Test
+    void testUpdateOrder_StaleVersionIsRejected() {
+        Order existing = Order.builder().id(1L).orderStatus(OrderStatus.Pending).amount(50L).version(4L).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        OrderDto stale = OrderDto.builder().id(1L).address("Old address").orderStatus(OrderStatus.Placed).version(3L).build();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> orderService.updateOrder(stale));
+        assertNull(existing.getAddress());
+        assertEquals(OrderStatus.Pending, existing.getOrderStatus());
+        verify(orderRepository, never()).flush();
+        verifyNoInteractions(analyticsRollup, orderOutbox);
+    }
+
+    @Test
+    void testPatchOrder_OnlyAppliesSuppliedFields() {
+        Date date = new Date(0);
+        Order existing = Order.builder().id(2L).userId(4L).orderStatus(OrderStatus.Placed).amount(50L).date(date)
+                .address("Old address").orderDescription("Kept").version(1L).build();
+        when(orderRepository.findWithoutItemsById(2L)).thenReturn(Optional.of(existing));
+
+        OrderDto result = orderService.patchOrder(2L, OrderPatch.builder().address("New address").build(), 1L);
+
+        assertEquals("New address", result.getAddress());
+        assertEquals("Kept", existing.getOrderDescription());
+        assertEquals(50L, existing.getAmount());
+        assertEquals(OrderStatus.Placed, existing.getOrderStatus());
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, times(1)).flush();
+    }
+
+    @Test
+    void testPatchOrder_StaleVersionIsRejected() {
+        Order existing = Order.builder().id(2L).orderStatus(OrderStatus.Placed).version(5L).build();
+        when(orderRepository.findWithoutItemsById(2L)).thenReturn(Optional.of(existing));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> orderService.patchOrder(2L, OrderPatch.builder().address("New address").build(), 4L));
+        assertNull(existing.getAddress());
+        verifyNoInteractions(analyticsRollup);
+    }
+
+    @Test
+    void testPatchOrder_EmptyPatchIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.patchOrder(2L, new OrderPatch(), null));
+        verifyNoInteractions(orderRepository, analyticsRollup, orderOutbox);
+    }
+
+    @Test
+    void testPatchOrder_CurrentValues_WritesNothing() {
+        Order existing = Order.builder().id(2L).userId(4L).orderStatus(OrderStatus.Placed).amount(50L)
+                .address("Same address").version(1L).build();
+        when(orderRepository.findWithoutItemsById(2L)).thenReturn(Optional.of(existing));
+
+        OrderDto result = orderService.patchOrder(2L,
+                OrderPatch.builder().address("Same address").orderStatus(OrderStatus.Placed).build(), null);
+
+        // rien n'a changé : ni UPDATE, ni événement, ni delta, ni éviction
+        assertEquals(1L, result.getVersion());
+        verify(orderRepository, never()).flush();
+        verifyNoInteractions(analyticsRollup, orderOutbox);
+    }
+
+    @Test
+    void testUpdateOrder_CurrentValues_WritesNothing() {
+        Date date = new Date(0);
+        Order existing = Order.builder().id(1L).userId(4L).orderStatus(OrderStatus.Placed).amount(50L).date(date)
+                .address("Same address").version(3L).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderRepository.findDtoById(1L)).thenAnswer(invocation -> Optional.of(existing.getOrderDto()));
+        orderService.getOrderById(1L);
+
+        OrderDto result = orderService.updateOrder(existing.getOrderDto());
+
+        assertEquals(3L, result.getVersion());
+        verify(orderRepository, never()).flush();
+        verifyNoInteractions(analyticsRollup, orderOutbox);
+        // la commande en cache n'est pas évincée
+        orderService.getOrderById(1L);
+        verify(orderRepository, times(1)).findDtoById(1L);
+    }
+
+    @Test
+    void testUpdateOrder_UnknownOrder() {
+        when(orderRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertNull(orderService.updateOrder(OrderDto.builder().id(9L).build()));
+        verifyNoInteractions(analyticsRollup);
+    }
+
+    @Test
+    void testGetCartByUserId_Found() {
+        OrderDto order = OrderDto.builder().id(3L).userId(1L).orderStatus(OrderStatus.Pending).build();
+        when(orderRepository.findDtoByUserIdAndOrderStatus(1L, OrderStatus.Pending)).thenReturn(Optional.of(order));
+
+        assertEquals(3L, orderService.getCartByUserId(1L).getId());
+    }
+
+    @Test
+    void testGetCartByUserId_NoPendingOrderIsCached() {
+        when(orderRepository.findDtoByUserIdAndOrderStatus(2L, OrderStatus.Pending)).thenReturn(Optional.empty());
+
+        assertNull(orderService.getCartByUserId(2L));
+        assertNull(orderService.getCartByUserId(2L));
+
+        verify(orderRepository, times(1)).findDtoByUserIdAndOrderStatus(2L, OrderStatus.Pending);
+    }
+
+    @Test
+    void testGetCartByUserId_CreateOrderEvictsNegativeEntry() {
+        when(orderRepository.findDtoByUserIdAndOrderStatus(2L, OrderStatus.Pending)).thenReturn(Optional.empty());
+        assertNull(orderService.getCartByUserId(2L));
+
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(5L);
+            return order;
+        });
+        orderService.createOrder(OrderRequest.builder().userId(2L).orderStatus("Pending").build());
+        when(orderRepository.findDtoByUserIdAndOrderStatus(2L, OrderStatus.Pending))
+                .thenReturn(Optional.of(OrderDto.builder().id(5L).userId(2L).orderStatus(OrderStatus.Pending).build()));
+
+        assertEquals(5L, orderService.getCartByUserId(2L).getId());
+    }
+
+    @Test
+    void testGetCartByUserId_CheckoutEvictsPendingOrder() {
+        Order pending = Order.builder().id(3L).userId(1L).orderStatus(OrderStatus.Pending).build();
+        when(orderRepository.findDtoByUserIdAndOrderStatus(1L, OrderStatus.Pending)).thenReturn(Optional.of(pending.getOrderDto()));
+        when(orderRepository.findById(3L)).thenReturn(Optional.of(pending));
+        assertEquals(3L, orderService.getCartByUserId(1L).getId());
+
+        orderService.updateOrder(OrderDto.builder().id(3L).userId(1L).orderStatus(OrderStatus.Placed).build());
+        when(orderRepository.findDtoByUserIdAndOrderStatus(1L, OrderStatus.Pending)).thenReturn(Optional.empty());
+
+        assertNull(orderService.getCartByUserId(1L));
+    }
+
+    @Test
+    void testGetMyPlacedOrders() {
+        when(orderRepository.findDtosByUserIdAndOrderStatusIn(eq(1L), anyCollection())).thenReturn(List.of(
+                OrderDto.builder().id(1L).build(), OrderDto.builder().id(2L).build()));
+
+        assertEquals(2, orderService.getMyPlacedOrders(1L).size());
+    }
+
+    @Test
+    void testGetOrderByTrackingId_NotFound() {
+        UUID trackingId = UUID.randomUUID();
+        when(orderRepository.findDtoByTrackingId(trackingId)).thenReturn(Optional.empty());
+
+        assertNull(orderService.getOrderByTrackingId(trackingId));
+    }
+}
@@ -0,0 +1,153 @@
+package com.aryan.orderservice.services.outbox;
+
+import com.aryan.orderservice.dto.OrderDto;
+import com.aryan.orderservice.dto.OrderEventDto;
+import com.aryan.orderservice.dto.OrderPatch;
+import com.aryan.orderservice.dto.OrderRequest;
+import com.aryan.orderservice.enums.OrderEventType;
+import com.aryan.orderservice.enums.OrderStatus;
+import com.aryan.orderservice.model.OrderEvent;
+import com.aryan.orderservice.model.OrderEventRelayState;
+import com.aryan.orderservice.repository.OrderEventRelayStateRepository;
+import com.aryan.orderservice.repository.OrderEventRepository;
+import com.aryan.orderservice.services.admin.adminOrder.AdminOrderService;
+import com.aryan.orderservice.services.order.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class OrderOutboxRelayTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AdminOrderService adminOrderService;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private OrderOutboxRelay relay;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderEventRelayStateRepository relayStateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void writesAppendEventsThatTheRelayPublishesInVersionOrder() {
+        OrderDto created = orderService.createOrder(OrderRequest.builder().userId(701L).amount(10L).orderStatus("Placed").build());
+        orderService.patchOrder(created.getId(), OrderPatch.builder().address("7 Main Street").build(), null);
+        adminOrderService.changeOrderStatus(created.getId(), "Shipped", null);
+        // une écriture rejetée n'ajoute aucun événement
+        assertThatThrownBy(() -> orderService.patchOrder(created.getId(), OrderPatch.builder().address("Lost").build(), 0L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        relay.relay();
+        assertThat(orderEventRepository.findByPublishedAtIsNullAndOrderIdIn(List.of(created.getId()))).isEmpty();
+
+        // published events are numbered in publication order and stay available for replay
+        List<OrderEventDto> replayed = orderOutbox.replay(created.getId(), null, 10);
+        assertThat(replayed)
+                .extracting(OrderEventDto::getEventType, OrderEventDto::getOrderStatus, OrderEventDto::getOrderVersion)
+                .containsExactly(
+                        tuple(OrderEventType.CREATED, OrderStatus.Placed, 0L),
+                        tuple(OrderEventType.UPDATED, OrderStatus.Placed, 1L),
+                        tuple(OrderEventType.STATUS_CHANGED, OrderStatus.Shipped, 2L));
+        assertThat(replayed.get(1).getPosition()).isEqualTo(replayed.get(0).getPosition() + 1);
+        assertThat(replayed.get(2).getPosition()).isEqualTo(replayed.get(1).getPosition() + 1);
+        assertThat(orderOutbox.replay(created.getId(), replayed.get(0).getPosition(), 10)).hasSize(2);
+    }
+
+    @Test
+    void writesThatChangeNothingAppendNoEvent() {
+        OrderDto created = orderService.createOrder(OrderRequest.builder().userId(704L).amount(10L).orderStatus("Placed").build());
+        // une mise à jour sans date date la commande : c'est un changement
+        OrderDto dated = orderService.updateOrder(created);
+
+        orderService.patchOrder(created.getId(), OrderPatch.builder().amount(10L).orderStatus(OrderStatus.Placed).build(), null);
+        orderService.updateOrder(orderService.getOrderById(created.getId()));
+
+        assertThat(orderEventRepository.findByPublishedAtIsNullAndOrderIdIn(List.of(created.getId())))
+                .extracting(OrderEvent::getEventType)
+                .containsExactlyInAnyOrder(OrderEventType.CREATED, OrderEventType.UPDATED);
+        assertThat(orderService.getOrderById(created.getId()).getVersion()).isEqualTo(dated.getVersion());
+    }
+
+    @Test
+    void replayOnlyServesPublishedEvents() throws Exception {
+        relay.relay();
+        OrderDto created = whileAnotherRelayHoldsTheLock(() -> {
+            OrderDto order = orderService.createOrder(OrderRequest.builder().userId(702L).amount(10L).orderStatus("Placed").build());
+            // pas encore de position : un consommateur ne peut pas le dépasser avant sa publication
+            assertThat(orderOutbox.replay(order.getId(), null, 10)).isEmpty();
+            return order;
+        });
+
+        relay.relay();
+        assertThat(orderOutbox.replay(created.getId(), null, 10)).extracting(OrderEventDto::getEventType)
+                .containsExactly(OrderEventType.CREATED);
+    }
+
+    @Test
+    void relayPublishesNothingWhileAnotherRelayHoldsTheLock() throws Exception {
+        relay.relay();
+        OrderDto created = whileAnotherRelayHoldsTheLock(() -> {
+            OrderDto order = orderService.createOrder(OrderRequest.builder().userId(703L).amount(10L).orderStatus("Placed").build());
+            // MySQL saute la ligne verrouillée, H2 attend la fin du délai : aucun événement n'est réclamé deux fois
+            relay.relay();
+            assertThat(orderEventRepository.findByPublishedAtIsNullAndOrderIdIn(List.of(order.getId()))).hasSize(1);
+            return order;
+        });
+
+        relay.relay();
+        assertThat(orderEventRepository.findByPublishedAtIsNullAndOrderIdIn(List.of(created.getId()))).isEmpty();
+    }
+
+    /** Les commandes créées dans {@code action} ne peuvent pas être publiées, même par les relais planifiés ***/
+    private <T> T whileAnotherRelayHoldsTheLock(Supplier<T> action) throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> otherRelay = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    assertThat(relayStateRepository.findLockedById(OrderEventRelayState.ID)).isPresent();
+                    locked.countDown();
+                    await(done);
+                }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            return action.get();
+        } finally {
+            done.countDown();
+            otherRelay.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
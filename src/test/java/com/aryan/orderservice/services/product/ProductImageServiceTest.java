@@ -0,0 +1,56 @@
+package com.aryan.orderservice.services.product;
+
+import com.aryan.orderservice.cache.OrderCacheConfig;
+import com.aryan.orderservice.dto.ProductDto;
+import com.aryan.orderservice.feign.ProductFeign;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProductImageServiceTest {
+
+    private final ProductFeign productFeign = mock(ProductFeign.class);
+
+    private ProductImageService productImageService;
+
+    @BeforeEach
+    void setUp() {
+        productImageService = new ProductImageService(productFeign, new ConcurrentMapCacheManager(OrderCacheConfig.PRODUCT_IMAGES));
+    }
+
+    @Test
+    void findImage_DecodesOnceThenServesFromCache() {
+        when(productFeign.getProductById(1L)).thenReturn(ProductDto.builder().id(1L).byteImg(new byte[]{1, 2, 3}).build());
+
+        ProductImage first = productImageService.findImage(1L).orElseThrow();
+        ProductImage second = productImageService.findImage(1L).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.bytes()).containsExactly(1, 2, 3);
+        verify(productFeign, times(1)).getProductById(1L);
+    }
+
+    @Test
+    void findImage_ProductWithoutImage_IsCachedAsMissing() {
+        when(productFeign.getProductById(2L)).thenReturn(ProductDto.builder().id(2L).build());
+
+        assertThat(productImageService.findImage(2L)).isEmpty();
+        assertThat(productImageService.findImage(2L)).isEmpty();
+
+        verify(productFeign, times(1)).getProductById(2L);
+    }
+
+    @Test
+    void findImage_ProductServiceUnavailable_IsNotCached() {
+        // Le fallback de ProductFeign renvoie null
+        when(productFeign.getProductById(3L)).thenReturn(null);
+
+        assertThat(productImageService.findImage(3L)).isEmpty();
+        assertThat(productImageService.findImage(3L)).isEmpty();
+
+        verify(productFeign, times(2)).getProductById(3L);
+    }
+}
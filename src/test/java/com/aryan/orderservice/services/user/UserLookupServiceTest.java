@@ -0,0 +1,159 @@
+package com.aryan.orderservice.services.user;
+
+import com.aryan.orderservice.dto.UserDto;
+import com.aryan.orderservice.feign.UserClient;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserLookupServiceTest {
+
+    private static final long LATENCY_MS = 20;
+
+    /** Stand-in for user-service: fixed latency per call, counts calls and in-flight requests ***/
+    static class StubUserService implements UserClient {
+        final AtomicInteger singleCalls = new AtomicInteger();
+        final AtomicInteger batchCalls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final boolean batchEndpoint;
+
+        StubUserService(boolean batchEndpoint) {
+            this.batchEndpoint = batchEndpoint;
+        }
+
+        @Override
+        public ResponseEntity<UserDto> getUserById(Long userID) {
+            singleCalls.incrementAndGet();
+            simulateLatency();
+            return ResponseEntity.ok(user(userID));
+        }
+
+        @Override
+        public ResponseEntity<List<UserDto>> getUsersByIds(Collection<Long> userIds) {
+            batchCalls.incrementAndGet();
+            if (!batchEndpoint) {
+                Request request = Request.create(Request.HttpMethod.POST, "/api/users/batch",
+                        Map.of(), null, StandardCharsets.UTF_8, null);
+                throw new FeignException.NotFound("Not Found", request, null, null);
+            }
+            simulateLatency();
+            return ResponseEntity.ok(userIds.stream().map(UserLookupServiceTest::user).toList());
+        }
+
+        private void simulateLatency() {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static UserDto user(Long id) {
+        return UserDto.builder().id(id).name("user-" + id).build();
+    }
+
+    /** 60 orders placed by 12 distinct users ***/
+    private static List<Long> orderUserIds() {
+        return LongStream.range(0, 60).map(i -> i % 12).boxed().toList();
+    }
+
+    @Test
+    void perIdFallback_dedupesAndFansOutWithBoundedConcurrency() {
+        List<Long> userIds = orderUserIds();
+
+        // Previous behaviour: one sequential call per order
+        StubUserService legacyStub = new StubUserService(false);
+        long legacyStart = System.nanoTime();
+        userIds.forEach(legacyStub::getUserById);
+        long legacyMillis = (System.nanoTime() - legacyStart) / 1_000_000;
+
+        StubUserService stub = new StubUserService(false);
+        UserLookupService service = new UserLookupService(stub, 4);
+        long start = System.nanoTime();
+        Map<Long, UserDto> users = service.findUsersByIds(userIds);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        service.shutdown();
+
+        assertThat(users).hasSize(12);
+        assertThat(users.get(5L).getName()).isEqualTo("user-5");
+        assertThat(legacyStub.singleCalls.get()).isEqualTo(60);
+        assertThat(stub.singleCalls.get()).isEqualTo(12);
+        assertThat(stub.maxInFlight.get()).isLessThanOrEqualTo(4);
+        assertThat(millis).isLessThan(legacyMillis / 4);
+    }
+
+    @Test
+    void batchEndpoint_resolvesAllUsersInOneCall() {
+        StubUserService stub = new StubUserService(true);
+        UserLookupService service = new UserLookupService(stub, 4);
+
+        Map<Long, UserDto> users = service.findUsersByIds(orderUserIds());
+        service.shutdown();
+
+        assertThat(users).hasSize(12);
+        assertThat(stub.batchCalls.get()).isEqualTo(1);
+        assertThat(stub.singleCalls.get()).isZero();
+    }
+
+    @Test
+    void missingBatchEndpoint_isOnlyProbedOnce() {
+        StubUserService stub = new StubUserService(false);
+        UserLookupService service = new UserLookupService(stub, 4);
+
+        service.findUsersByIds(List.of(1L, 2L));
+        service.findUsersByIds(Arrays.asList(3L, null));
+        service.shutdown();
+
+        assertThat(stub.batchCalls.get()).isEqualTo(1);
+        assertThat(stub.singleCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void unavailableUserService_degradesToNoUsersWithoutPerIdCalls() {
+        StubUserService stub = new StubUserService(true) {
+            @Override
+            public ResponseEntity<List<UserDto>> getUsersByIds(Collection<Long> userIds) {
+                batchCalls.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        };
+        UserLookupService service = new UserLookupService(stub, 4);
+
+        Map<Long, UserDto> users = service.findUsersByIds(orderUserIds());
+        service.shutdown();
+
+        assertThat(users).isEmpty();
+        assertThat(stub.batchCalls.get()).isEqualTo(1);
+        assertThat(stub.singleCalls.get()).isZero();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadMode_keepsTheConcurrencyCap() {
+        StubUserService stub = new StubUserService(false);
+        UserLookupService service = new UserLookupService(stub, UserLookupService.virtualThreadExecutor(4));
+
+        Map<Long, UserDto> users = service.findUsersByIds(orderUserIds());
+        service.shutdown();
+
+        assertThat(users).hasSize(12);
+        assertThat(stub.singleCalls.get()).isEqualTo(12);
+        assertThat(stub.maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+}